@@ -0,0 +1,214 @@
+import uk.ac.warwick.dcs.maze.logic.IRobot;
+import uk.ac.warwick.dcs.maze.logic.Maze;
+import java.awt.Point;
+import java.util.Arrays;
+/*
+ * AStarController Preamble:
+ * Ex1, Ex2, Ex3 and GrandFinale only know about the maze through look(), one square at a time, which is the point of those exercises.
+ * This controller is the opposite: it reads the whole maze once through robot.getMaze(), plans the shortest path from the robot
+ * to robot.getTargetLocation() with A*, and then only has to set its heading on each poll.
+ * It is used as the optimal-steps baseline to compare the other controllers against in BatchRunner and MazeBenchmark,
+ * and as a fast mode whenever the full map is available.
+ *
+ * A* uses the Manhattan distance to the target as its heuristic, which never overestimates on a grid where every step costs 1,
+ * so the path it finds is always a shortest one. The walls are read into a bitset which has a wall all the way round the maze,
+ * in the same way as PackedMaze's padding, so a maze loaded from a file with an open square on its edge never leads the search
+ * off the grid or round onto the next row. The open set is a binary heap of square numbers in an int array (with the position
+ * of each square in the heap, so that a square can be moved up when a shorter route to it is found), and the closed set is another bitset. All the arrays are kept between mazes of the same size.
+ */
+/**
+ * This is the A* planning controller, which follows a shortest path to the target without any collisions
+ *
+ * @author Param Bhatia
+ * @since 18-10-2026
+ */
+public class AStarController implements PolledController {
+    private static final int[] HEADINGS = {IRobot.NORTH, IRobot.EAST, IRobot.SOUTH, IRobot.WEST};
+
+    private Maze plannedMaze;               /*Maze the current path was planned on, null if there is no path yet*/
+    private int stride;                     /*Squares per row, including the wall on both sides*/
+    private int[] dx = new int[4];          /*Change in square number for a step in each heading, filled in for each stride*/
+    private long[] walls = new long[0];
+    private long[] closed = new long[0];
+    private int[] distance = new int[0];    /*Steps from the robot's square, the 'g' of A* */
+    private int[] estimate = new int[0];    /*distance + Manhattan distance to the target, the 'f' of A* */
+    private byte[] arrivedBy = new byte[0]; /*Heading (0-3) of the step into each square on the shortest route to it*/
+    private int[] heap = new int[0];
+    private int[] heapIndex = new int[0];   /*Position of each square in the heap, -1 if it is not in the open set*/
+    private int heapSize;
+
+    private int[] path = new int[16];       /*Heading to set on each poll*/
+    private int pathLength;
+    private int index = 0;
+
+    public AStarController() {
+    }
+
+    /**
+     * A* makes no random choices, the seed is only accepted so that this controller can be run by BatchRunner -seed
+     *
+     * @param seed      Ignored
+     */
+    public AStarController(long seed) {
+    }
+
+    /**
+     * controlRobot plans a path the first time it is polled on a maze, then sets the next heading along it
+     *
+     * @param robot     Object of IRobot class
+     */
+    public void controlRobot(IRobot robot) {
+        if (plannedMaze != robot.getMaze() || index >= pathLength) {
+            plan(robot);
+        }
+        robot.setHeading(path[index++]);
+    }
+
+    /**
+     * reset forgets the path, so that the next run plans again from wherever the robot is
+     */
+    public void reset() {
+        plannedMaze = null;
+        index = 0;
+    }
+
+    /**
+     * plan reads the maze and finds a shortest path from the robot to the target with A*
+     *
+     * @param robot     Object of IRobot class
+     */
+    private void plan(IRobot robot) {
+        Maze maze = robot.getMaze();
+        Point location = robot.getLocation();
+        Point target = robot.getTargetLocation();
+        readMaze(maze);
+        int start = (location.y + 1) * stride + location.x + 1;
+        int goal = (target.y + 1) * stride + target.x + 1;
+        int goalX = goal % stride;
+        int goalY = goal / stride;
+
+        Arrays.fill(closed, 0L);
+        Arrays.fill(heapIndex, -1);
+        heapSize = 0;
+        distance[start] = 0;
+        estimate[start] = Math.abs(start % stride - goalX) + Math.abs(start / stride - goalY);
+        push(start);
+
+        boolean found = false;
+        while (heapSize > 0) {
+            int square = pop();
+            if (square == goal) {
+                found = true;
+                break;
+            }
+            closed[square >>> 6] |= 1L << square;
+            for (int h = 0; h < 4; h++) {
+                int next = square + dx[h];
+                if ((walls[next >>> 6] & (1L << next)) != 0 || (closed[next >>> 6] & (1L << next)) != 0) continue;
+                int newDistance = distance[square] + 1;
+                if (heapIndex[next] >= 0 && newDistance >= distance[next]) continue;
+                distance[next] = newDistance;
+                estimate[next] = newDistance + Math.abs(next % stride - goalX) + Math.abs(next / stride - goalY);
+                arrivedBy[next] = (byte) h;
+                if (heapIndex[next] >= 0) siftUp(heapIndex[next]);
+                else push(next);
+            }
+        }
+        if (!found) {
+            throw new IllegalStateException("There is no route from " + location + " to the target " + target);
+        }
+
+        /*Walk back from the target, then store the headings from the robot's square forwards*/
+        pathLength = 0;
+        for (int square = goal; square != start; square -= dx[arrivedBy[square]]) pathLength++;
+        if (path.length < pathLength) path = new int[Math.max(pathLength, path.length * 2)];
+        int i = pathLength;
+        for (int square = goal; square != start; square -= dx[arrivedBy[square]]) {
+            path[--i] = HEADINGS[arrivedBy[square]];
+        }
+        plannedMaze = maze;
+        index = 0;
+    }
+
+    /**
+     * readMaze copies the walls of the maze into the bitset, with a wall around the outside,
+     * growing the arrays if the maze is bigger than the last one
+     */
+    private void readMaze(Maze maze) {
+        int width = maze.getWidth();
+        stride = width + 2;
+        int squares = stride * (maze.getHeight() + 2);
+        if (distance.length != squares) {
+            walls = new long[(squares + 63) >>> 6];
+            closed = new long[walls.length];
+            distance = new int[squares];
+            estimate = new int[squares];
+            arrivedBy = new byte[squares];
+            heap = new int[squares];
+            heapIndex = new int[squares];
+        }
+        Arrays.fill(walls, -1L);
+        for (int y = 0; y < maze.getHeight(); y++) {
+            int square = (y + 1) * stride + 1;
+            for (int x = 0; x < width; x++, square++) {
+                if (maze.getCellType(x, y) != Maze.WALL) walls[square >>> 6] &= ~(1L << square);
+            }
+        }
+        dx[0] = -stride;
+        dx[1] = 1;
+        dx[2] = stride;
+        dx[3] = -1;
+    }
+
+    private void push(int square) {
+        heap[heapSize] = square;
+        heapIndex[square] = heapSize;
+        siftUp(heapSize++);
+    }
+
+    /**
+     * pop takes the square with the lowest estimate out of the open set
+     */
+    private int pop() {
+        int top = heap[0];
+        heapIndex[top] = -1;
+        if (--heapSize > 0) {
+            heap[0] = heap[heapSize];
+            heapIndex[heap[0]] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    /**
+     * before orders the open set by estimate, and prefers the square furthest from the robot when the estimates are equal
+     */
+    private boolean before(int a, int b) {
+        return estimate[a] < estimate[b] || (estimate[a] == estimate[b] && distance[a] > distance[b]);
+    }
+
+    private void siftUp(int i) {
+        int square = heap[i];
+        while (i > 0 && before(square, heap[(i - 1) / 2])) {
+            heap[i] = heap[(i - 1) / 2];
+            heapIndex[heap[i]] = i;
+            i = (i - 1) / 2;
+        }
+        heap[i] = square;
+        heapIndex[square] = i;
+    }
+
+    private void siftDown(int i) {
+        int square = heap[i];
+        while (2 * i + 1 < heapSize) {
+            int child = 2 * i + 1;
+            if (child + 1 < heapSize && before(heap[child + 1], heap[child])) child++;
+            if (!before(heap[child], square)) break;
+            heap[i] = heap[child];
+            heapIndex[heap[i]] = i;
+            i = child;
+        }
+        heap[i] = square;
+        heapIndex[square] = i;
+    }
+}
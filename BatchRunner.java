@@ -0,0 +1,246 @@
+import uk.ac.warwick.dcs.maze.logic.IMazeGenerator;
+import uk.ac.warwick.dcs.maze.logic.IRobot;
+import uk.ac.warwick.dcs.maze.logic.Maze;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+/*
+ * BatchRunner Preamble:
+ * CmdTest in maze-environment.jar can only run one controller on one maze, so this class is used to
+ * evaluate controllers (e.g. Ex3 and GrandFinale) over thousands of mazes for regression testing.
+ *
+ * Every worker thread owns its own controller instance, its own maze generator and its own HeadlessRobot,
+ * so the workers never share anything apart from the counter of mazes still left to run.
+ * This is why the throughput scales with the number of cores.
+ *
+ * With -seed, maze number i is generated from MazeFactory.mazeSeed(seed, i) and is run by a new controller
+ * created with that same seed, so every maze and every step is the same on every run of the batch,
+ * however many threads there are. This is what performance regressions should be compared on.
+ *
+ * With -packed, the mazes are run on a PackedRobot, which stores the walls and beenBefore squares as bitsets.
+ * It follows the same rules as HeadlessRobot, so the totals are the same, only the memory and time change.
+ * With -fast, the mazes come from FastPrimGenerator, which can generate mazes of several thousand squares across for load tests.
+ * There is no fast loopy generator, so -fast cannot be used with -loopy.
+ * With -corpus, the mazes are read one at a time from a MazeCorpus file instead of being generated, and -mazes, -size,
+ * -loopy and -fast are ignored. Maze i is still run by a controller seeded with MazeFactory.mazeSeed(seed, i) if -seed is given.
+ * With -events N, every worker's robot publishes on its own SimulationEventBus, with 1 ROBOT_RELOCATE delivered for every N moves,
+ * to a client which counts the events, e.g. to check the cost of a progress display. The workers still share nothing.
+ *
+ * Usage: java BatchRunner [-mazes N] [-size N] [-runs N] [-threads N] [-maxSteps N] [-loopy] [-seed N] [-packed] [-fast] [-corpus file] [-events N] Controller...
+ * e.g.   java -cp maze-environment.jar:. BatchRunner -mazes 2000 -size 101 -runs 2 -loopy Ex3 GrandFinale
+ */
+/**
+ * This is the headless batch runner, which reports the total steps, collisions and wall-clock time per controller
+ *
+ * @author Param Bhatia
+ * @since 18-10-2026
+ */
+public class BatchRunner {
+    private int mazes = 1000;
+    private int size = 51;
+    private int runs = 1;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private long maxSteps = 10000000L;      /*A run is abandoned after this many polls*/
+    private boolean loopy = false;
+    private Long seed = null;               /*null unless -seed is given*/
+    private boolean packed = false;         /*Use PackedRobot instead of HeadlessRobot*/
+    private boolean fast = false;           /*Use FastPrimGenerator instead of the Prim generator*/
+    private MazeCorpus corpus = null;       /*null unless -corpus is given*/
+    private int events = 0;                 /*Moves per delivered location event, 0 for no event bus*/
+
+    public static void main(String[] args) throws Exception {
+        BatchRunner runner = new BatchRunner();
+        List<String> controllers = new ArrayList<String>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-mazes": runner.mazes = Integer.parseInt(args[++i]); break;
+                case "-size": runner.size = Integer.parseInt(args[++i]); break;
+                case "-runs": runner.runs = Integer.parseInt(args[++i]); break;
+                case "-threads": runner.threads = Integer.parseInt(args[++i]); break;
+                case "-maxSteps": runner.maxSteps = Long.parseLong(args[++i]); break;
+                case "-loopy": runner.loopy = true; break;
+                case "-seed": runner.seed = Long.parseLong(args[++i]); break;
+                case "-packed": runner.packed = true; break;
+                case "-fast": runner.fast = true; break;
+                case "-corpus": runner.corpus = new MazeCorpus(new File(args[++i])); break;
+                case "-events": runner.events = Integer.parseInt(args[++i]); break;
+                default: controllers.add(args[i]);
+            }
+        }
+        if (controllers.isEmpty() || (runner.fast && runner.loopy)) {
+            System.out.println("Usage: java BatchRunner [-mazes N] [-size N] [-runs N] [-threads N] [-maxSteps N] [-loopy] [-seed N] [-packed] [-fast] [-corpus file] [-events N] Controller...");
+            System.exit(1);
+        }
+        if (runner.corpus != null) runner.mazes = runner.corpus.size();
+        for (String name : controllers) {
+            runner.evaluate(Class.forName(name)).print(name);
+        }
+        System.exit(0);
+    }
+
+    /**
+     * evaluate runs the given controller class over all of the mazes, spread across the worker threads
+     *
+     * @param controllerClass       Class with a public no-argument constructor and controlRobot(IRobot)
+     * @return                      Totals of every worker added together
+     */
+    public Result evaluate(final Class<?> controllerClass) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        final AtomicInteger nextMaze = new AtomicInteger();
+        List<Future<Result>> futures = new ArrayList<Future<Result>>();
+        long startTime = System.nanoTime();
+        try {
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> runWorker(controllerClass, nextMaze)));
+            }
+            Result total = new Result(runs);
+            for (Future<Result> future : futures) {
+                total.add(future.get());
+            }
+            total.nanos = System.nanoTime() - startTime;
+            return total;
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * runWorker keeps taking the next maze number until all of the mazes have been run
+     * Each maze is generated, then run 'runs' times in a row, in the same way as pressing reset in the GUI
+     */
+    private Result runWorker(Class<?> controllerClass, AtomicInteger nextMaze) throws Exception {
+        PolledController controller = seed == null ? newController(controllerClass, null) : null;
+        IMazeGenerator generator;
+        if (fast) generator = new FastPrimGenerator(size, seed == null ? System.nanoTime() : seed);
+        else generator = seed == null ? MazeFactory.generator(loopy, size) : MazeFactory.generator(loopy, size, seed);
+        SimulatedRobot robot = packed ? new PackedRobot() : new HeadlessRobot();
+        Result result = new Result(runs);
+        if (events > 0) {
+            SimulationEventBus bus = new SimulationEventBus(events);
+            bus.addClient(event -> result.events++);
+            robot.setEventBus(bus);
+        }
+
+        int index;
+        while ((index = nextMaze.getAndIncrement()) < mazes) {
+            if (seed != null) {
+                long mazeSeed = MazeFactory.mazeSeed(seed, index);
+                if (corpus == null) ((SeededGenerator) generator).setSeed(mazeSeed);
+                controller = newController(controllerClass, mazeSeed);
+            }
+            Maze maze = corpus == null ? generator.generateMaze() : corpus.get(index);
+            robot.setMaze(maze);
+            if (seed != null || corpus != null) robot.setHeading(IRobot.EAST);    /*Otherwise the heading is left over from whichever maze this worker ran before*/
+            for (int run = 0; run < runs; run++) {
+                if (run > 0) robot.reset();
+                long polls = 0;
+                boolean failed = false;
+                try {
+                    while (!robot.isAtTarget() && polls < maxSteps) {
+                        controller.controlRobot(robot);
+                        robot.advance();
+                        polls++;
+                    }
+                }
+                catch (RuntimeException e) {
+                    failed = true;      /*The controller threw an exception, so this run counts as an error*/
+                }
+                controller.reset();
+                result.record(run, robot.getSteps(), robot.getCollisions(), robot.getLooks(), polls, robot.isAtTarget(), failed);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * newController creates a controller, using its (long seed) constructor if a seed is given
+     */
+    static PolledController newController(Class<?> controllerClass, Long seed) throws Exception {
+        if (seed == null) {
+            return DirectPolledControllerWrapper.bind(controllerClass.getDeclaredConstructor().newInstance());
+        }
+        try {
+            return DirectPolledControllerWrapper.bind(controllerClass.getDeclaredConstructor(long.class).newInstance(seed));
+        }
+        catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException(controllerClass.getName() + " has no (long seed) constructor, so it cannot be seeded", e);
+        }
+    }
+
+    /**
+     * Result holds the totals for one worker, or for all the workers once they have been added together
+     * The steps and collisions are kept separately for each run, so that e.g. the second run of GrandFinale can be compared to the first
+     */
+    public static class Result {
+        private final long[] steps;
+        private final long[] collisions;
+        private final long[] solved;
+        private final long[] errors;
+        private final long[] looks;
+        private final long[] polls;
+        private long mazes;
+        private long nanos;
+        private long events;
+
+        Result(int runs) {
+            steps = new long[runs];
+            collisions = new long[runs];
+            solved = new long[runs];
+            errors = new long[runs];
+            looks = new long[runs];
+            polls = new long[runs];
+        }
+
+        private void record(int run, long runSteps, long runCollisions, long runLooks, long runPolls,
+                            boolean reachedTarget, boolean failed) {
+            if (run == 0) mazes++;
+            steps[run] += runSteps;
+            collisions[run] += runCollisions;
+            if (reachedTarget) solved[run]++;
+            if (failed) errors[run]++;
+            looks[run] += runLooks;
+            polls[run] += runPolls;
+        }
+
+        private void add(Result other) {
+            mazes += other.mazes;
+            events += other.events;
+            for (int run = 0; run < steps.length; run++) {
+                steps[run] += other.steps[run];
+                collisions[run] += other.collisions[run];
+                solved[run] += other.solved[run];
+                errors[run] += other.errors[run];
+                looks[run] += other.looks[run];
+                polls[run] += other.polls[run];
+            }
+        }
+
+        public long getTotalSteps() {
+            long total = 0;
+            for (long runSteps : steps) total += runSteps;
+            return total;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        private void print(String name) {
+            double seconds = nanos / 1e9;
+            System.out.println(name + ": " + mazes + " mazes in " + String.format("%.3f", seconds) + "s ("
+                    + String.format("%.0f", getTotalSteps() / seconds) + " steps/s)");
+            for (int run = 0; run < steps.length; run++) {
+                System.out.println("  run " + (run + 1) + ": steps=" + steps[run] + " collisions=" + collisions[run]
+                        + " solved=" + solved[run] + "/" + mazes + " errors=" + errors[run]
+                        + " avgSteps=" + String.format("%.1f", steps[run] / (double) Math.max(1, mazes))
+                        + " looksPerPoll=" + String.format("%.2f", looks[run] / (double) Math.max(1, polls[run])));
+            }
+            if (events > 0) System.out.println("  events delivered=" + events);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.ObjectName;
+/*
+ * ControllerMetrics Preamble:
+ * Apart from the steps and collisions RobotImpl counts for the GUI, there was no way to see what a controller was doing during a long run.
+ * ControllerMetrics counts, for every controller class, the polls (one step each), how many of them were exploring and how many
+ * were backtracking, the junctions recorded, the look calls, and the deepest the junction stack has been,
+ * together with a histogram of how long controlRobot takes.
+ *
+ * Metrics are only kept when the maze.metrics system property is set, e.g. -Dmaze.metrics=true, otherwise forController() returns null
+ * and the controllers skip them. Every counter is a LongAdder, so robots on different threads polling the same kind of controller
+ * each add to their own cell instead of fighting over one counter. Reading System.nanoTime twice would cost as much as a whole poll
+ * of Ex3, so only 1 poll in 64, chosen at random, is timed.
+ *
+ * The histogram has the same layout as an HdrHistogram with 3 significant bits: values below 16ns have a bucket each,
+ * and every power of 2 above that is split into 8 buckets, so every percentile is within 12.5% of the true value.
+ *
+ * Every controller's metrics are registered with the platform MBean server as RobotMazeControl:type=ControllerMetrics,name=<class>,
+ * so they can be watched with jconsole, and one line per controller is printed to System.err every maze.metrics.dump seconds
+ * (default 10, 0 for never) and when the JVM exits.
+ */
+/**
+ * These are the counters and poll latency histogram of one kind of controller
+ *
+ * @author Param Bhatia
+ * @since 18-10-2026
+ */
+public class ControllerMetrics implements ControllerMetricsMBean {
+    public static final String PROPERTY = "maze.metrics";
+    public static final String DUMP_PROPERTY = "maze.metrics.dump";
+    private static final boolean ENABLED = System.getProperty(PROPERTY) != null;
+    private static final int DUMP_SECONDS = Integer.getInteger(DUMP_PROPERTY, 10);
+    private static final int TIMED_POLLS = 64;      /*1 poll in this many is timed*/
+    private static final int BUCKETS = 16 + 8 * 60;
+    private static final Map<String, ControllerMetrics> REGISTRY = new ConcurrentHashMap<String, ControllerMetrics>();
+
+    private final String name;
+    private final LongAdder polls = new LongAdder();
+    private final LongAdder explorePolls = new LongAdder();
+    private final LongAdder junctions = new LongAdder();
+    private final LongAdder looks = new LongAdder();
+    private final LongAccumulator maxDepth = new LongAccumulator(Math::max, 0);
+    private final AtomicLongArray latency = new AtomicLongArray(BUCKETS);
+    private long lastPolls;                 /*Only used by the dump*/
+    private long lastDumpNanos = System.nanoTime();
+
+    static {
+        if (ENABLED) {
+            if (DUMP_SECONDS > 0) {
+                Thread dumper = new Thread(() -> {
+                    while (true) {
+                        try {
+                            Thread.sleep(DUMP_SECONDS * 1000L);
+                        }
+                        catch (InterruptedException e) {
+                            return;
+                        }
+                        dumpAll();
+                    }
+                }, "controller-metrics");
+                dumper.setDaemon(true);
+                dumper.start();
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(ControllerMetrics::dumpAll));
+        }
+    }
+
+    private ControllerMetrics(String name) {
+        this.name = name;
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this,
+                    new ObjectName("RobotMazeControl:type=ControllerMetrics,name=" + name));
+        }
+        catch (Exception e) {
+            System.err.println("Could not register the metrics of " + name + " with JMX: " + e.getMessage());
+        }
+    }
+
+    /**
+     * forController is the metrics shared by every instance of one kind of controller
+     *
+     * @param name      Name of the controller, e.g. "Ex3"
+     * @return          The metrics, or null if the maze.metrics property is not set
+     */
+    public static ControllerMetrics forController(String name) {
+        return ENABLED ? REGISTRY.computeIfAbsent(name, ControllerMetrics::new) : null;
+    }
+
+    /**
+     * startPoll is called at the start of controlRobot
+     *
+     * @return      Start time of the poll if this poll is timed, otherwise 0
+     */
+    public long startPoll() {
+        return ThreadLocalRandom.current().nextInt(TIMED_POLLS) == 0 ? System.nanoTime() : 0;
+    }
+
+    /**
+     * endPoll is called at the end of controlRobot
+     *
+     * @param startNanos        Value returned by startPoll
+     * @param explorerMode      1 if the controller is exploring, 0 if it is backtracking
+     * @param depth             Size of the controller's junction stack
+     * @param lookCalls         Number of calls to look during the poll
+     */
+    public void endPoll(long startNanos, int explorerMode, int depth, int lookCalls) {
+        if (startNanos != 0) latency.getAndIncrement(bucket(System.nanoTime() - startNanos));
+        polls.increment();
+        if (explorerMode == 1) explorePolls.increment();
+        looks.add(lookCalls);
+        maxDepth.accumulate(depth);
+    }
+
+    /**
+     * junction is called every time the controller records a new junction
+     */
+    public void junction() {
+        junctions.increment();
+    }
+
+    /**
+     * bucket is the histogram bucket of a value, 8 buckets for every power of 2 from 16 upwards
+     */
+    static int bucket(long nanos) {
+        if (nanos < 16) return (int) Math.max(0, nanos);
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        return Math.min(BUCKETS - 1, 16 + 8 * (exponent - 4) + (int) ((nanos >>> (exponent - 3)) & 7));
+    }
+
+    /**
+     * highestValue is the largest value which goes into a bucket
+     */
+    static long highestValue(int bucket) {
+        if (bucket < 16) return bucket;
+        int exponent = (bucket - 16) / 8 + 4;
+        long lowest = (8L + (bucket - 16) % 8) << (exponent - 3);
+        return lowest + (1L << (exponent - 3)) - 1;
+    }
+
+    /**
+     * percentile is the poll time below which the given fraction of the timed polls fall
+     *
+     * @param fraction      e.g. 0.99 for the 99th percentile
+     * @return              Poll time in nanoseconds, 0 if no poll has been timed
+     */
+    public long percentile(double fraction) {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = latency.get(i);
+            total += counts[i];
+        }
+        if (total == 0) return 0;
+        long target = (long) Math.ceil(fraction * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= target && counts[i] > 0) return highestValue(i);
+        }
+        return highestValue(BUCKETS - 1);
+    }
+
+    public long getPolls() {
+        return polls.sum();
+    }
+
+    public long getExplorePolls() {
+        return explorePolls.sum();
+    }
+
+    public long getBacktrackPolls() {
+        return polls.sum() - explorePolls.sum();
+    }
+
+    public double getBacktrackRatio() {
+        long total = polls.sum();
+        return total == 0 ? 0 : (total - explorePolls.sum()) / (double) total;
+    }
+
+    public long getJunctions() {
+        return junctions.sum();
+    }
+
+    public long getLooks() {
+        return looks.sum();
+    }
+
+    public long getMaxDepth() {
+        return maxDepth.get();
+    }
+
+    public long getPollNanosP50() {
+        return percentile(0.50);
+    }
+
+    public long getPollNanosP99() {
+        return percentile(0.99);
+    }
+
+    public long getPollNanosP999() {
+        return percentile(0.999);
+    }
+
+    /**
+     * dump prints one line with every metric, and the polls per second since the last dump
+     */
+    private synchronized void dump() {
+        long now = System.nanoTime();
+        long total = polls.sum();
+        double rate = (total - lastPolls) / ((now - lastDumpNanos) / 1e9);
+        lastPolls = total;
+        lastDumpNanos = now;
+        System.err.printf("metrics %s: polls=%d (%.0f/s) backtrack=%.1f%% junctions=%d looks=%d maxDepth=%d poll p50=%dns p99=%dns p99.9=%dns%n",
+                name, total, rate, 100 * getBacktrackRatio(), getJunctions(), getLooks(), getMaxDepth(),
+                getPollNanosP50(), getPollNanosP99(), getPollNanosP999());
+    }
+
+    private static void dumpAll() {
+        for (ControllerMetrics metrics : REGISTRY.values()) {
+            metrics.dump();
+        }
+    }
+}
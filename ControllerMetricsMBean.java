@@ -0,0 +1,34 @@
+/**
+ * ControllerMetricsMBean is what ControllerMetrics shows through JMX, e.g. in jconsole
+ *
+ * @author Param Bhatia
+ * @since 18-10-2026
+ */
+public interface ControllerMetricsMBean {
+
+    long getPolls();
+
+    long getExplorePolls();
+
+    long getBacktrackPolls();
+
+    /**
+     * @return      Fraction of the polls which were spent backtracking
+     */
+    double getBacktrackRatio();
+
+    long getJunctions();
+
+    long getLooks();
+
+    /**
+     * @return      Largest size the junction stack has reached
+     */
+    long getMaxDepth();
+
+    long getPollNanosP50();
+
+    long getPollNanosP99();
+
+    long getPollNanosP999();
+}
@@ -0,0 +1,371 @@
+import uk.ac.warwick.dcs.maze.logic.IRobot;
+import uk.ac.warwick.dcs.maze.logic.Maze;
+import java.awt.Point;
+import java.util.Arrays;
+/*
+ * DStarLiteController Preamble:
+ * Ex3 explores with Tremaux's algorithm, and apart from the beenBefore squares it forgets everything look() has told it,
+ * choosing randomly between passages at every junction. This controller keeps a map of every wall it has seen, and always
+ * heads along the shortest path to robot.getTargetLocation() through that map, treating every square it has not seen yet as open.
+ * When look() shows a wall on the planned path, the path is repaired with D* Lite (Koenig & Likhachev, 2002), which
+ * only updates the squares whose distance to the target has really changed, instead of planning the whole path again.
+ *
+ * The only things read from robot.getMaze() are its width and height, every wall comes from look().
+ * The map is kept between runs on the same maze, so later runs only follow the walls already found.
+ *
+ * The search runs backwards from the target, so g[s] is the length of the shortest path from s to the target in the map,
+ * and the robot steps to whichever open neighbour has the lowest g.
+ *
+ * On the first run on a maze the map has no walls, so g starts as the Manhattan distance to the target and nothing is searched.
+ * A repair can still have to expand a large part of the maze, e.g. when a wall cuts the path off from a long way round,
+ * so at most MAX_EXPANSIONS squares are expanded in one poll. If the search has not finished, the robot steps to the open
+ * neighbour with the lowest min(g, rhs) (the nearest to the target if they are equal), and the search carries on at the next poll.
+ * The distance the robot has moved is added to km first, which is what D* Lite does for a robot which has moved since
+ * the keys were computed. Every square has a key of
+ * [min(g, rhs) + Manhattan distance to the robot + km, min(g, rhs)], packed into one long, and the open queue is
+ * a binary heap of square numbers in an int array with the position of each square in the heap.
+ */
+/**
+ * This is the D* Lite controller, which plans optimistically towards the target and repairs its plan as walls are found
+ *
+ * @author Param Bhatia
+ * @since 18-10-2026
+ */
+public class DStarLiteController implements PolledController {
+    private static final int INFINITY = 1 << 29;
+    private static final int MAX_EXPANSIONS = 250;     /*Squares expanded in one poll, which keeps a poll under a millisecond on 1000x1000*/
+    private static final int[] HEADINGS = {IRobot.NORTH, IRobot.EAST, IRobot.SOUTH, IRobot.WEST};
+
+    private final Neighbourhood around = new Neighbourhood();
+    private Maze knownMaze;                 /*Maze the wall map belongs to*/
+    private int width;
+    private int[] step = new int[4];        /*Change in square number for a step in each heading*/
+    private long[] walls = new long[0];     /*Walls seen so far*/
+
+    private int[] g = new int[0];
+    private int[] rhs = new int[0];
+    private long[] key = new long[0];
+    private int[] heap = new int[0];
+    private int[] heapIndex = new int[0];   /*Position of each square in the heap, -1 if it is not in the queue*/
+    private int heapSize;
+    private int km;
+
+    private boolean started = false;        /*false until the first poll of each run*/
+    private boolean planning;               /*The last search ran out of expansions before the robot's square was settled*/
+    private int robotSquare;
+    private int lastSquare;                 /*Robot's square the last time the map changed*/
+    private int goal;
+    private long planningNanos;
+    private long maxPlanningNanos;
+    private long plans;
+
+    public DStarLiteController() {
+    }
+
+    /**
+     * D* Lite makes no random choices, the seed is only accepted so that this controller can be run by BatchRunner -seed
+     *
+     * @param seed      Ignored
+     */
+    public DStarLiteController(long seed) {
+    }
+
+    /**
+     * controlRobot adds any new walls around the robot to the map, repairs the plan if there were any,
+     * and then heads towards the open neighbour nearest to the target
+     *
+     * @param robot     Object of IRobot class
+     */
+    public void controlRobot(IRobot robot) {
+        if (!started) start(robot);
+        around.scan(robot);
+
+        /*look() directions are relative, bit b of the scan is the heading (heading + b) % 4*/
+        int facing = robot.getHeading() - IRobot.NORTH;
+        boolean changed = false;
+        for (int b = 0; b < 4; b++) {
+            if ((around.nonwallMask() & (1 << b)) != 0) continue;
+            int wall = robotSquare + step[(facing + b) & 3];
+            if ((walls[wall >>> 6] & (1L << wall)) != 0) continue;
+            if (!changed) {
+                moveKeys();
+                changed = true;
+            }
+            addWall(wall);
+        }
+        if (changed || planning) {
+            long startTime = System.nanoTime();
+            moveKeys();
+            planning = !computeShortestPath();
+            long nanos = System.nanoTime() - startTime;
+            planningNanos += nanos;
+            maxPlanningNanos = Math.max(maxPlanningNanos, nanos);
+            plans++;
+        }
+
+        /*Once the search has finished g is right, until then the best guess is min(g, rhs) and then the distance to the target*/
+        int best = -1;
+        int bestCost = planning ? INFINITY + 1 : INFINITY;
+        int bestDistance = INFINITY;
+        for (int h = 0; h < 4; h++) {
+            int next = robotSquare + step[h];
+            if (blocked(next)) continue;
+            int cost = planning ? Math.min(g[next], rhs[next]) : g[next];
+            int nextDistance = planning ? distance(next, goal) : 0;
+            if (cost < bestCost || (cost == bestCost && nextDistance < bestDistance)) {
+                bestCost = cost;
+                bestDistance = nextDistance;
+                best = h;
+            }
+        }
+        if (best < 0) {
+            throw new IllegalStateException("There is no route to the target");
+        }
+        robot.setHeading(HEADINGS[best]);
+        robotSquare += step[best];          /*The square was just seen to be open, so the robot will not collide*/
+    }
+
+    /**
+     * reset keeps the wall map, so that the next run on the same maze plans with everything found so far
+     */
+    public void reset() {
+        started = false;
+    }
+
+    /**
+     * @return      Average time taken to plan or repair the path, in nanoseconds
+     */
+    public long getAveragePlanningNanos() {
+        return plans == 0 ? 0 : planningNanos / plans;
+    }
+
+    /**
+     * @return      Longest time taken to plan or repair the path in one poll of this run, in nanoseconds
+     */
+    public long getMaxPlanningNanos() {
+        return maxPlanningNanos;
+    }
+
+    /**
+     * start sets up the search at the beginning of a run, and clears the map if the maze has changed
+     */
+    private void start(IRobot robot) {
+        Maze maze = robot.getMaze();
+        boolean noWalls = maze != knownMaze;
+        if (noWalls) {
+            knownMaze = maze;
+            width = maze.getWidth();
+            int squares = width * maze.getHeight();
+            if (g.length != squares) {
+                walls = new long[(squares + 63) >>> 6];
+                g = new int[squares];
+                rhs = new int[squares];
+                key = new long[squares];
+                heap = new int[squares];
+                heapIndex = new int[squares];
+            }
+            else {
+                Arrays.fill(walls, 0L);
+            }
+            step[0] = -width;
+            step[1] = 1;
+            step[2] = width;
+            step[3] = -1;
+        }
+        Point location = robot.getLocation();
+        Point target = robot.getTargetLocation();
+        robotSquare = location.y * width + location.x;
+        lastSquare = robotSquare;
+        goal = target.y * width + target.x;
+
+        Arrays.fill(heapIndex, -1);
+        heapSize = 0;
+        km = 0;
+        if (noWalls) {
+            /*With no walls in the map, the shortest path from every square is the Manhattan distance, so nothing needs searching*/
+            int goalX = goal % width;
+            int goalY = goal / width;
+            for (int s = 0; s < g.length; s++) {
+                g[s] = Math.abs(s % width - goalX) + Math.abs(s / width - goalY);
+            }
+            System.arraycopy(g, 0, rhs, 0, g.length);
+            planning = false;
+        }
+        else {
+            Arrays.fill(g, INFINITY);
+            Arrays.fill(rhs, INFINITY);
+            rhs[goal] = 0;
+            queue(goal, calculateKey(goal));
+            planning = true;
+        }
+        planningNanos = 0;
+        maxPlanningNanos = 0;
+        plans = 0;
+        started = true;
+    }
+
+    /**
+     * addWall marks a square as a wall, and updates the squares next to it, whose shortest paths may have gone through it
+     */
+    private void addWall(int wall) {
+        walls[wall >>> 6] |= 1L << wall;
+        rhs[wall] = INFINITY;
+        updateVertex(wall);
+        for (int h = 0; h < 4; h++) {
+            int next = wall + step[h];
+            if (inside(next) && next != goal) {
+                rhs[next] = bestSuccessor(next);
+                updateVertex(next);
+            }
+        }
+    }
+
+    /**
+     * moveKeys adds the distance the robot has moved since the keys were last computed to km, before the queue is used again
+     */
+    private void moveKeys() {
+        km += distance(lastSquare, robotSquare);
+        lastSquare = robotSquare;
+    }
+
+    /**
+     * computeShortestPath expands squares until the robot's square is consistent and nothing left in the queue can beat it,
+     * or until MAX_EXPANSIONS squares have been expanded
+     *
+     * @return          true if the search finished, false if it has to carry on at the next poll
+     */
+    private boolean computeShortestPath() {
+        for (int expansions = 0; heapSize > 0 && (key[heap[0]] < calculateKey(robotSquare) || rhs[robotSquare] != g[robotSquare]); expansions++) {
+            if (expansions == MAX_EXPANSIONS) return false;
+            int u = heap[0];
+            long oldKey = key[u];
+            long newKey = calculateKey(u);
+            if (oldKey < newKey) {
+                key[u] = newKey;
+                siftDown(0);
+            }
+            else if (g[u] > rhs[u]) {
+                g[u] = rhs[u];
+                remove(u);
+                for (int h = 0; h < 4; h++) {
+                    int s = u + step[h];
+                    if (!inside(s) || s == goal || blocked(s)) continue;
+                    if (g[u] + 1 < rhs[s]) {
+                        rhs[s] = g[u] + 1;
+                        updateVertex(s);
+                    }
+                }
+            }
+            else {
+                int oldG = g[u];
+                g[u] = INFINITY;
+                if (u != goal && rhs[u] == oldG) rhs[u] = blocked(u) ? INFINITY : bestSuccessor(u);
+                updateVertex(u);
+                for (int h = 0; h < 4; h++) {
+                    int s = u + step[h];
+                    if (!inside(s) || s == goal || blocked(s)) continue;
+                    if (rhs[s] == oldG + 1) {
+                        rhs[s] = bestSuccessor(s);
+                        updateVertex(s);
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * bestSuccessor is the lowest 1 + g of the open neighbours of s, which is what rhs[s] should be
+     */
+    private int bestSuccessor(int s) {
+        if (blocked(s)) return INFINITY;
+        int best = INFINITY;
+        for (int h = 0; h < 4; h++) {
+            int next = s + step[h];
+            if (!blocked(next) && g[next] + 1 < best) best = g[next] + 1;
+        }
+        return best;
+    }
+
+    private void updateVertex(int u) {
+        if (g[u] != rhs[u]) {
+            long newKey = calculateKey(u);
+            if (heapIndex[u] >= 0) {
+                long oldKey = key[u];
+                key[u] = newKey;
+                if (newKey < oldKey) siftUp(heapIndex[u]);
+                else siftDown(heapIndex[u]);
+            }
+            else {
+                queue(u, newKey);
+            }
+        }
+        else if (heapIndex[u] >= 0) {
+            remove(u);
+        }
+    }
+
+    private long calculateKey(int s) {
+        int best = Math.min(g[s], rhs[s]);
+        return ((long) Math.min(INFINITY, best + distance(robotSquare, s) + km) << 32) | best;
+    }
+
+    private int distance(int a, int b) {
+        return Math.abs(a % width - b % width) + Math.abs(a / width - b / width);
+    }
+
+    private boolean inside(int s) {
+        return s >= 0 && s < g.length;
+    }
+
+    /**
+     * blocked is true for walls which have been seen, and for anything outside the maze
+     */
+    private boolean blocked(int s) {
+        return !inside(s) || (walls[s >>> 6] & (1L << s)) != 0;
+    }
+
+    private void queue(int s, long newKey) {
+        key[s] = newKey;
+        heap[heapSize] = s;
+        heapIndex[s] = heapSize;
+        siftUp(heapSize++);
+    }
+
+    private void remove(int s) {
+        int i = heapIndex[s];
+        heapIndex[s] = -1;
+        if (--heapSize > i) {
+            int moved = heap[heapSize];     /*The last square fills the gap, then goes down or up to where it belongs*/
+            heap[i] = moved;
+            heapIndex[moved] = i;
+            siftDown(i);
+            if (heap[i] == moved) siftUp(i);
+        }
+    }
+
+    private void siftUp(int i) {
+        int s = heap[i];
+        while (i > 0 && key[s] < key[heap[(i - 1) / 2]]) {
+            heap[i] = heap[(i - 1) / 2];
+            heapIndex[heap[i]] = i;
+            i = (i - 1) / 2;
+        }
+        heap[i] = s;
+        heapIndex[s] = i;
+    }
+
+    private void siftDown(int i) {
+        int s = heap[i];
+        while (2 * i + 1 < heapSize) {
+            int child = 2 * i + 1;
+            if (child + 1 < heapSize && key[heap[child + 1]] < key[heap[child]]) child++;
+            if (key[heap[child]] >= key[s]) break;
+            heap[i] = heap[child];
+            heapIndex[heap[i]] = i;
+            i = child;
+        }
+        heap[i] = s;
+        heapIndex[s] = i;
+    }
+}
@@ -0,0 +1,257 @@
+import uk.ac.warwick.dcs.maze.logic.IRobot;
+import uk.ac.warwick.dcs.maze.logic.Maze;
+import java.util.ArrayList;
+import java.util.List;
+/*
+ * DeadEndFilter Preamble:
+ * A controller which can see the whole maze through robot.getMaze() does not have to explore the dead ends at all.
+ * Dead-end filling turns every passage square with only one open neighbour (other than the start and the target) into a wall,
+ * which can make its neighbour a dead end in turn, until there are no dead ends left. In a Prim maze, which has no loops,
+ * that leaves exactly the path from the start to the target. In a loopy maze it leaves that path and the loops it can go round.
+ *
+ * Each square is filled at most once, and only the one open neighbour of a filled square needs to be checked again, so this is
+ * linear in the size of the maze. The work-list is a stack in an int array which is kept between mazes: it starts with every
+ * dead end, and filling a square pushes at most one square, so it never holds more than the number of dead ends there were at the start.
+ * A square can be pushed twice, e.g. both ends of a passage of two squares which is closed off on its own, so a square which
+ * is already a wall when it is popped is skipped. The maze passed in is not changed, the filled maze is a new PackedMaze.
+ * fill also counts the junctions and crossroads which are left, which is 0 exactly when only a path (with no loops off it) is left.
+ *
+ * PrunedController uses this to let Ex3, GrandFinale or any other look-based controller run on the filled maze.
+ * main measures the steps saved and the time the filling takes on Prim and loopy mazes. Every controller is run -runs times
+ * on each maze (2 by default), in the same way as BatchRunner -runs, and each run is reported on its own, so that e.g. the
+ * second run of GrandFinale, which replays its route, is measured as well. Without -size or -seed it runs each of CHECKS,
+ * and it exits with 1 if a controller solved fewer of the filled mazes than of the plain ones in any run.
+ *
+ * Usage: java DeadEndFilter [-mazes N] [-size N] [-seed N] [-runs N] [Controller...]
+ * e.g.   java -cp maze-environment.jar:. DeadEndFilter -mazes 500 -size 101 Ex3 GrandFinale
+ */
+/**
+ * This is the dead-end filling pass, which leaves only the squares a robot could need on its way to the target
+ *
+ * @author Param Bhatia
+ * @since 18-10-2026
+ */
+public class DeadEndFilter {
+    /*Sizes and seeds main checks by default, 51/3 has loopy mazes (49 and 99) where the start is left on a loop*/
+    private static final long[][] CHECKS = {{101, 7}, {51, 3}};
+
+    private int[] work = new int[0];        /*Stack of squares to fill*/
+    private int filled;
+    private int junctions;
+
+    /**
+     * fill creates a copy of the maze with every dead end filled in
+     *
+     * @param maze      Maze to filter, which is not changed
+     * @return          Filtered maze, with the same size, start and target
+     */
+    public PackedMaze fill(Maze maze) {
+        PackedMaze source = PackedMaze.copyOf(maze);
+        PackedMaze pruned = new PackedMaze(source.getWidth(), source.getHeight());
+        for (int word = 0; word < source.wordCount(); word++) {
+            pruned.setWalls(word, source.getWalls(word));
+        }
+        pruned.setStart(source.getStart().x, source.getStart().y);
+        pruned.setFinish(source.getFinish().x, source.getFinish().y);
+
+        int north = pruned.step(IRobot.NORTH);
+        int start = pruned.index(source.getStart().x, source.getStart().y);
+        int finish = pruned.index(source.getFinish().x, source.getFinish().y);
+        int size = 0;
+        for (int y = 0; y < pruned.getHeight(); y++) {
+            int square = pruned.index(0, y);
+            for (int x = 0; x < pruned.getWidth(); x++, square++) {
+                if (!pruned.isWall(square) && square != start && square != finish && openNeighbours(pruned, square, north) <= 1) {
+                    if (size == work.length) work = java.util.Arrays.copyOf(work, Math.max(64, 2 * size));
+                    work[size++] = square;
+                }
+            }
+        }
+
+        filled = 0;
+        while (size > 0) {
+            int square = work[--size];
+            if (pruned.isWall(square)) continue;        /*Pushed twice, from both ends of a passage which was closed off*/
+            pruned.setCellType(pruned.x(square), pruned.y(square), Maze.WALL);
+            filled++;
+            int next = openNeighbour(pruned, square, north);
+            if (next >= 0 && next != start && next != finish && openNeighbours(pruned, next, north) <= 1) {
+                work[size++] = next;        /*There is room, as the square just popped made space for it*/
+            }
+        }
+
+        junctions = 0;
+        for (int y = 0; y < pruned.getHeight(); y++) {
+            int square = pruned.index(0, y);
+            for (int x = 0; x < pruned.getWidth(); x++, square++) {
+                if (!pruned.isWall(square) && openNeighbours(pruned, square, north) > 2) junctions++;
+            }
+        }
+        return pruned;
+    }
+
+    /**
+     * @return      Number of squares filled by the last call to fill
+     */
+    public int getFilled() {
+        return filled;
+    }
+
+    /**
+     * @return      Number of junctions and crossroads left by the last call to fill, 0 if only the path to the target is left
+     */
+    public int getJunctions() {
+        return junctions;
+    }
+
+    private static int openNeighbours(PackedMaze maze, int square, int north) {
+        int open = 0;
+        if (!maze.isWall(square - north)) open++;
+        if (!maze.isWall(square + 1)) open++;
+        if (!maze.isWall(square + north)) open++;
+        if (!maze.isWall(square - 1)) open++;
+        return open;
+    }
+
+    /**
+     * openNeighbour is the only open square next to a square which has just been filled, or -1 if it was closed in
+     */
+    private static int openNeighbour(PackedMaze maze, int square, int north) {
+        if (!maze.isWall(square - north)) return square - north;
+        if (!maze.isWall(square + 1)) return square + 1;
+        if (!maze.isWall(square + north)) return square + north;
+        if (!maze.isWall(square - 1)) return square - 1;
+        return -1;
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty(JunctionLog.LEVEL_PROPERTY, "OFF");     /*Ex1 would print every junction*/
+        int mazes = 300;
+        Integer size = null;
+        Long seed = null;
+        int runs = 2;
+        List<String> controllers = new ArrayList<String>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-mazes": mazes = Integer.parseInt(args[++i]); break;
+                case "-size": size = Integer.parseInt(args[++i]); break;
+                case "-seed": seed = Long.parseLong(args[++i]); break;
+                case "-runs": runs = Integer.parseInt(args[++i]); break;
+                default: controllers.add(args[i]);
+            }
+        }
+        if (controllers.isEmpty()) {
+            controllers.add("Ex3");
+            controllers.add("GrandFinale");
+        }
+        boolean solvedAll = true;
+        if (size != null || seed != null) {
+            solvedAll = compare(mazes, size == null ? 101 : size, seed == null ? 7 : seed, runs, controllers);
+        }
+        else {
+            for (long[] set : CHECKS) {
+                solvedAll &= compare(mazes, (int) set[0], set[1], runs, controllers);
+            }
+        }
+        if (!solvedAll) {
+            System.out.println("The pruned maze was not solved every time the plain maze was");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * compare fills Prim and loopy mazes of one size and seed, and runs each controller on them with and without the filling
+     *
+     * @return          false if the pruned runs solved fewer mazes than the plain ones, in any run
+     */
+    private static boolean compare(int mazes, int size, long seed, int runs, List<String> controllers) throws Exception {
+        boolean solvedAll = true;
+        for (boolean loopy : new boolean[]{false, true}) {
+            SeededPrimGenerator generator = MazeFactory.generator(loopy, size, seed);
+            Maze[] generated = new Maze[mazes];
+            for (int i = 0; i < mazes; i++) {
+                generator.setSeed(MazeFactory.mazeSeed(seed, i));
+                generated[i] = generator.generateMaze();
+            }
+            DeadEndFilter filter = new DeadEndFilter();
+            long squares = 0;
+            long filledSquares = 0;
+            for (int round = 0; round < 3; round++) {      /*The first rounds only warm up the JIT*/
+                filledSquares = 0;
+                for (Maze maze : generated) {
+                    filter.fill(maze);
+                    filledSquares += filter.getFilled();
+                }
+            }
+            long startTime = System.nanoTime();
+            for (Maze maze : generated) {
+                filter.fill(maze);
+            }
+            double fillMillis = (System.nanoTime() - startTime) / 1e6 / mazes;
+            for (Maze maze : generated) {
+                for (int y = 0; y < size; y++) {
+                    for (int x = 0; x < size; x++) {
+                        if (maze.getCellType(x, y) == Maze.PASSAGE) squares++;
+                    }
+                }
+            }
+            int leftLoops = 0;
+            for (Maze maze : generated) {
+                filter.fill(maze);
+                if (filter.getJunctions() > 0) leftLoops++;
+            }
+            System.out.println((loopy ? "Loopy" : "Prim") + " " + size + "x" + size + ": " + String.format("%.1f", 100.0 * filledSquares / squares)
+                    + "% of passages filled, " + String.format("%.3f", fillMillis) + " ms per maze, " + leftLoops + " mazes left with junctions");
+            for (String name : controllers) {
+                Class<?> controllerClass = Class.forName(name);
+                long[] plain = new long[runs];
+                long[] pruned = new long[runs];
+                int[] plainSolved = new int[runs];
+                int[] prunedSolved = new int[runs];
+                HeadlessRobot robot = new HeadlessRobot();
+                for (int i = 0; i < mazes; i++) {
+                    long controllerSeed = MazeFactory.mazeSeed(seed, i);
+                    solve(robot, generated[i], BatchRunner.newController(controllerClass, controllerSeed), plain, plainSolved);
+                    solve(robot, generated[i], new PrunedController(BatchRunner.newController(controllerClass, controllerSeed)), pruned, prunedSolved);
+                }
+                for (int run = 0; run < runs; run++) {
+                    System.out.println("  " + name + " run " + (run + 1) + ": avgSteps=" + String.format("%.1f", plain[run] / (double) mazes)
+                            + " (" + plainSolved[run] + " solved), pruned avgSteps=" + String.format("%.1f", pruned[run] / (double) mazes)
+                            + " (" + prunedSolved[run] + " solved), " + String.format("%.1f", 100.0 * (plain[run] - pruned[run]) / Math.max(1, plain[run]))
+                            + "% fewer steps");
+                    solvedAll &= prunedSolved[run] >= plainSolved[run];
+                }
+            }
+        }
+        return solvedAll;
+    }
+
+    /**
+     * solve runs one controller on one maze once for each element of steps, resetting the robot between runs as BatchRunner does
+     *
+     * @param steps     Steps of each run, added to
+     * @param solved    Number of mazes solved in each run, incremented
+     */
+    private static void solve(HeadlessRobot robot, Maze maze, PolledController controller, long[] steps, int[] solved) {
+        robot.setMaze(maze);
+        robot.setHeading(IRobot.EAST);
+        for (int run = 0; run < steps.length; run++) {
+            if (run > 0) robot.reset();
+            long polls = 0;
+            boolean failed = false;
+            try {
+                while (!robot.isAtTarget() && polls < 10000000L) {
+                    controller.controlRobot(robot);
+                    robot.advance();
+                    polls++;
+                }
+            }
+            catch (RuntimeException e) {
+                failed = true;
+            }
+            controller.reset();
+            steps[run] += robot.getSteps();
+            if (!failed && robot.isAtTarget()) solved[run]++;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+import uk.ac.warwick.dcs.maze.logic.IRobot;
+import uk.ac.warwick.dcs.maze.logic.IRobotController;
+import java.awt.Point;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+/*
+ * DirectPolledControllerWrapper Preamble:
+ * The PolledControllerWrapper in maze-environment.jar looks up controlRobot and reset with Class.getMethod,
+ * and then calls Method.invoke for every single poll. It also looks up the private RobotImpl.advance method
+ * again on every step. On mazes with millions of steps this reflection costs more than the controller itself.
+ *
+ * This wrapper does all of the lookups once, when the controller and the robot are set:
+ * Controllers which implement PolledController (Ex1, Ex2, Ex3 and GrandFinale) are called through the interface,
+ * any other controller has its methods turned into PolledController calls by the LambdaMetafactory,
+ * and RobotImpl.advance is bound to a Runnable. The polling loop then makes no reflective calls, prints nothing,
+ * and only sleeps if the delay is more than zero.
+ *
+ * Otherwise the loop is the same as PolledControllerWrapper's: the target is checked before every poll (so a robot which
+ * starts on the target is never moved), a poll which throws is printed and the loop carries on, and the controller is reset at the end.
+ */
+/**
+ * This is an IRobotController which polls a controller object with direct calls instead of reflection
+ *
+ * @author Param Bhatia
+ * @since 18-10-2026
+ */
+public class DirectPolledControllerWrapper implements IRobotController {
+    private final Object controlObject;
+    private final PolledController controller;
+    private IRobot robot;
+    private SimulatedRobot headless;        /*Same robot as above if it is a HeadlessRobot or PackedRobot, otherwise null*/
+    private Runnable advance;
+    private volatile boolean active = false;
+    private Point target;                   /*Read by begin, since it does not move during a run*/
+    private int delay = 200;
+
+    public DirectPolledControllerWrapper(Object controlObject) {
+        this.controlObject = controlObject;
+        this.controller = bind(controlObject);
+    }
+
+    /**
+     * bind turns any object with a public controlRobot(IRobot) method, and optionally reset(), into a PolledController
+     * This is done once, so that every poll afterwards is a normal interface call
+     *
+     * @param controlObject     Controller object, e.g. an instance of Ex3
+     * @return                  PolledController which calls the controller object directly
+     */
+    public static PolledController bind(Object controlObject) {
+        if (controlObject instanceof PolledController) {
+            return (PolledController) controlObject;
+        }
+        Class<?> controllerClass = controlObject.getClass();
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            MethodHandle controlRobot = lookup.findVirtual(controllerClass, "controlRobot",
+                    MethodType.methodType(void.class, IRobot.class));
+            MethodHandle reset = null;
+            try {
+                reset = lookup.findVirtual(controllerClass, "reset", MethodType.methodType(void.class));
+            }
+            catch (NoSuchMethodException e) {
+                /*reset is optional, in the same way as for PolledControllerWrapper*/
+            }
+            final RobotPoll poll = (RobotPoll) metafactory(lookup, RobotPoll.class, "poll", controlRobot, controllerClass,
+                    MethodType.methodType(void.class, IRobot.class)).invoke(controlObject);
+            final Runnable resetCall = reset == null ? null : (Runnable) metafactory(lookup, Runnable.class, "run", reset,
+                    controllerClass, MethodType.methodType(void.class)).invoke(controlObject);
+
+            return new PolledController() {
+                public void controlRobot(IRobot robot) {
+                    poll.poll(robot);
+                }
+
+                public void reset() {
+                    if (resetCall != null) resetCall.run();
+                }
+            };
+        }
+        catch (Throwable e) {
+            throw new IllegalArgumentException("Could not bind controller " + controllerClass.getName(), e);
+        }
+    }
+
+    /**
+     * metafactory creates a factory which takes the controller object and returns an instance of the given interface
+     */
+    private static MethodHandle metafactory(MethodHandles.Lookup lookup, Class<?> type, String name, MethodHandle target,
+                                            Class<?> receiver, MethodType signature) throws Exception {
+        CallSite site = LambdaMetafactory.metafactory(lookup, name, MethodType.methodType(type, receiver),
+                signature, target, signature);
+        return site.getTarget();
+    }
+
+    /**
+     * setRobot also binds the robot's advance method
+     * HeadlessRobot and PackedRobot have a public advance method, RobotImpl only has a private one which is made accessible once here
+     *
+     * @param robot     Robot which will be controlled
+     */
+    public void setRobot(final IRobot robot) {
+        this.robot = robot;
+        headless = null;
+        if (robot instanceof SimulatedRobot) {
+            headless = (SimulatedRobot) robot;
+            advance = headless::advance;
+            return;
+        }
+        try {
+            Method method = robot.getClass().getDeclaredMethod("advance");
+            method.setAccessible(true);
+            final MethodHandle handle = MethodHandles.lookup().unreflect(method).bindTo(robot);
+            advance = () -> {
+                try {
+                    handle.invokeExact();
+                }
+                catch (RuntimeException e) {
+                    throw e;
+                }
+                catch (Throwable e) {
+                    throw new RuntimeException(e);
+                }
+            };
+        }
+        catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Robot " + robot.getClass().getName() + " has no advance method", e);
+        }
+    }
+
+    /**
+     * start polls the controller until the robot reaches the target or reset is called
+     * The target is read once, since it does not move during a run
+     */
+    public void start() {
+        begin();
+        while (poll()) {
+            if (delay > 0) robot.sleep(delay);
+        }
+        finish();
+    }
+
+    /**
+     * begin, poll and finish are the parts of start, for a SessionScheduler which runs many robots without a thread each
+     * begin marks the controller as running, so that reset can stop it, and reads the target
+     */
+    public void begin() {
+        active = true;
+        target = robot.getTargetLocation();
+    }
+
+    /**
+     * poll polls the controller once and moves the robot, without sleeping
+     * In the same way as PolledControllerWrapper, the robot is not polled if it is already at the target,
+     * and an exception thrown by the controller or by moving is printed and the robot is polled again next time
+     *
+     * @return      true if the robot was polled, false once it is at the target or reset has been called
+     */
+    public boolean poll() {
+        if (!active || atTarget(target)) return false;
+        try {
+            controller.controlRobot(robot);
+            advance.run();
+        }
+        catch (RuntimeException e) {
+            e.printStackTrace();
+        }
+        return true;
+    }
+
+    /**
+     * finish resets the controller at the end of a run, in the same way as start
+     */
+    public void finish() {
+        controller.reset();
+    }
+
+    private boolean atTarget(Point target) {
+        if (headless != null) return headless.isAtTarget();
+        return robot.getLocation().equals(target);
+    }
+
+    public void reset() {
+        active = false;
+    }
+
+    public void setDelay(int delay) {
+        this.delay = delay;
+    }
+
+    public int getDelay() {
+        return delay;
+    }
+
+    public Object getControlObject() {
+        return controlObject;
+    }
+
+    public String getDescription() {
+        return "Direct Polled Controller";
+    }
+
+    /**
+     * RobotPoll is the single-method interface which the LambdaMetafactory implements for controlRobot
+     */
+    public interface RobotPoll {
+        void poll(IRobot robot);
+    }
+}
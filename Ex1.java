@@ -1,6 +1,8 @@
 import uk.ac.warwick.dcs.maze.logic.IRobot;
+import uk.ac.warwick.dcs.maze.logic.Maze;
+import java.awt.Point;
 import java.util.Arrays;
-import java.util.ArrayList;
+import java.util.SplittableRandom;
 /*
  * Ex1 Preamble:
  * Here, the robot will firstly check how many non-Wall exits are surrounding itself, using the nonwallExits method.
@@ -24,10 +26,11 @@ import java.util.ArrayList;
  * The program is easy to read because I have not done more than a single operation per line, and trailing comments have been indented.
  *
  * The robot makes use of the RobotData class by creating a new instance of the class whenever it is in a new maze
- * This means that the JunctionInfo arraylist will be new for each maze, and no previous data will remain, in order to save memory.
+ * This means that the junction store will be new for each maze, and no previous data will remain, in order to save memory.
  * The RobotData class is only used in three instances
  * Firstly, when the robot encounters a new junction or crossroad, and stores the coordinates and heading using the recordJunction method in RobotData
  * It will then also call teh printJunction method of RobotData to print out all the attributes of the new junction.
+ * The printing is done by JunctionLog on a background thread, and can be sampled or switched off with -Dmaze.log.level=OFF.
  * Secondly, when the robot is at a junction/crossroad(in backtracking mode) which has been previuosly fully explored
  * it will call the searchJunction method of the RobotData class to obtain the initial arrived from heading
  * This is vital simce the robot will be backtracking showing that the junction is full explored and does not lead to the target
@@ -57,139 +60,78 @@ import java.util.ArrayList;
  * @author Param Bhatia
  * @since 10-12-2021
  */
-public class Ex1 {
+public class Ex1 implements PolledController {
+    private final Neighbourhood around = new Neighbourhood();   /*The four squares around the robot, scanned once per poll*/
+    private final SplittableRandom random;                      /*Owned by this controller, so robots on other threads never share it*/
     private int pollRun = 0;            /*Incremented after each pass*/
     private RobotData robotData;
     private int explorerMode = 1;       /*Set robot into exploring mode at the beginning*/
+    private final TraceRecorder trace = TraceRecorder.forController();     /*null unless -Dmaze.trace is set*/
+    private final ControllerMetrics metrics = ControllerMetrics.forController("Ex1");     /*null unless -Dmaze.metrics is set*/
 
 
     /**
-     * randomDirection is used to check all four directions and determine how many non-wall exits exist
-     * If there is more than one exit, it chooses randomly between all exits
-     *
-     * @param robot     Object of the IRobot class
-     * @return          randomly chosen non-wall direction for robot to move in
+     * The no-argument constructor is used by the GUI, and picks a different random seed every time
      */
-    private int randomDirection(IRobot robot){
-
-        /*Arraylist is used as it has a flexible size and number of exits can vary making this desirable*/
-        ArrayList < Integer > emptyWalls = new ArrayList <Integer>();
-        int[] directions = {IRobot.AHEAD, IRobot.BEHIND, IRobot.LEFT, IRobot.RIGHT};
-        int states = 0;
-
-        /*Looks in all directions and increments states variable if there is no wall in that direction*/
-        for(int j = 0; j<directions.length; j++) {
-            if (robot.look(directions[j]) != IRobot.WALL) {
-                emptyWalls.add(directions[j]);  //adding non-wall direction to emptyWalls arraylist
-                states++;
-            }
-        }
-        int randomNum = randomNumber(states);
-
-        /*Allocates a random direction to face depending on number of non-wall exits*/
-        if (states == 2){
-            if(randomNum == 0) return emptyWalls.get(0);
-            else return emptyWalls.get(1);
-        }
-        else if (states == 3){
-            if(randomNum == 0) return emptyWalls.get(0);
-            else if (randomNum == 1) return emptyWalls.get(1);
-            else return emptyWalls.get(2);
-        }
-        else{
-            if(randomNum == 0) return emptyWalls.get(0);
-            else if (randomNum == 1) return emptyWalls.get(1);
-            else if (randomNum == 2) return emptyWalls.get(2);
-            else return emptyWalls.get(3);
-        }
+    public Ex1() {
+        random = new SplittableRandom();
+    }
 
+    /**
+     * This constructor makes every random choice depend only on the seed, so that a run can be repeated exactly
+     *
+     * @param seed      Seed for the random choices at junctions and crossroads
+     */
+    public Ex1(long seed) {
+        random = new SplittableRandom(seed);
     }
 
     /**
-     * randomNumber is used to generate a random integer
+     * randomDirection chooses randomly between all of the non-wall exits around the robot
      *
-     * @param range     The number of possible randomly generated integers
-     * @return          random integer between 0 and ('range' - 1)
+     * @return          randomly chosen non-wall direction for robot to move in
      */
-    private int randomNumber(int range){
-        int newRand = (int) (Math.random()*range);  //typecast Math.random()*range as int
-        return newRand;
+    private int randomDirection(){
+        return Neighbourhood.randomExit(around.nonwallMask(), random);
     }
 
     /**
-     * beenBeforeExits checks in all four directions to count the number of beenBefore squares
+     * beenBeforeExits returns the number of beenBefore squares surrounding the robot, from the scan at the start of this poll
      *
-     * @param robot     Object of the IRobot class
      * @return          Number of beenBefore squares surrounding the robot currently
      */
-    private int beenBeforeExits(IRobot robot){
-        int[] directions = {IRobot.AHEAD, IRobot.BEHIND, IRobot.LEFT, IRobot.RIGHT};
-        int beenBeforeSquares = 0;
-
-        /*Looks around to count how many beenBefore squares there are*/
-        for(int i = 0; i < 4; i++){
-            if(robot.look(directions[i]) == IRobot.BEENBEFORE) {
-                beenBeforeSquares++;
-            }
-        }
-        return beenBeforeSquares;
+    private int beenBeforeExits(){
+        return around.beenBeforeExits();
     }
 
     /**
-     * nonWallExits checks in all four directions to count the number of non-Wall exits
+     * nonWallExits returns the number of non-Wall exits surrounding the robot, from the scan at the start of this poll
      *
-     * @param robot     Object of the IRobot class
      * @return          Number of non-Wall exits surrounding the robot currently
      */
-    private int nonwallExits(IRobot robot){
-        int[] directions = {IRobot.AHEAD, IRobot.BEHIND, IRobot.LEFT, IRobot.RIGHT};
-        int availableSpaces = 0;
-
-        /*Looks around the robot in to count how many non-wall spaces there are*/
-        for(int i = 0; i < 4; i++){
-            if(robot.look(directions[i]) != IRobot.WALL) {
-                availableSpaces++;
-            }
-        }
-        return availableSpaces;
+    private int nonwallExits(){
+        return around.nonwallExits();
     }
 
     /**
-     * passageExits checks in all four directions to count the number of passage exits
+     * passageExits returns the number of passage exits surrounding the robot, from the scan at the start of this poll
      *
-     * @param robot     Object of the IRobot class
      * @return          Number of passage exits currently surrounding the robot
      */
-    private int passageExits(IRobot robot){
-        int[] directions = {IRobot.AHEAD, IRobot.BEHIND, IRobot.LEFT, IRobot.RIGHT};
-        int passages = 0;
-
-        /*Looks around the robot in to count how many passages there are*/
-        for(int i = 0; i < 4; i++){
-            if(robot.look(directions[i]) == IRobot.PASSAGE)
-                passages++;
-        }
-        return passages;
+    private int passageExits(){
+        return around.passageExits();
     }
 
     /**
      * deadEnd is called if the robot is at a dead-end
-     * Look around for the only open exit and move in that direction
+     * Find the only open exit and move in that direction
      *
-     * @param robot     Object of the IRobot class
      * @return          Direction for robot to move in
      */
-    private int deadEnd(IRobot robot) {
-        int result = 0;
-        int[] directions = {IRobot.AHEAD, IRobot.BEHIND, IRobot.LEFT, IRobot.RIGHT};
+    private int deadEnd() {
 
-        /*Looks around the robot to find the only open exit*/
-        for (int i = 0; i < 4; i++) {
-            if (robot.look(directions[i]) != IRobot.WALL) {
-                result = directions[i];
-            }
-        }
-        return result;
+        /*The only open exit is the only bit set in the non-wall mask*/
+        return IRobot.AHEAD + Integer.numberOfTrailingZeros(around.nonwallMask());
     }
 
     /**
@@ -197,16 +139,15 @@ public class Ex1 {
      * If the robot can move ahead without crashing, then move ahead,
      * Otherwise move left or right, whichever does not have a wall
      *
-     * @param robot     Object of the IRobot class
      * @return          Direction for robot to move when in a corridor
      */
-    private int corridor(IRobot robot) {
+    private int corridor() {
         int result = 0;
-        if (robot.look(IRobot.AHEAD) != IRobot.WALL) {
+        if (around.look(IRobot.AHEAD) != IRobot.WALL) {
             result = IRobot.AHEAD;
         }
         else {
-            if (robot.look(IRobot.LEFT) != IRobot.WALL){
+            if (around.look(IRobot.LEFT) != IRobot.WALL){
                 result = IRobot.LEFT;   /*If robot cannot move forward, then either right or left is non-Wall*/
             }
             else result = IRobot.RIGHT;
@@ -216,7 +157,7 @@ public class Ex1 {
 
     /**
      * junctionAndCrossroads is called if the robot is either in a junction or crossroad
-     * If it is a new junction/crossroad add it to the JunctionInfo arraylist in RobotData class
+     * If it is a new junction/crossroad record it in the RobotData class
      * The method will then check if any passages exit surrounding the robot, and choose between those
      * Otherwise it will choose randomly between all non-Wall exits
      *
@@ -226,66 +167,42 @@ public class Ex1 {
     private int junctionAndCrossroads(IRobot robot){
 
         /*
-        If it is a new junction/crossroad then store it in JunctionInfo arraylist
-        * Use the .getLocation() functions as input arguments for the current coordinates
+        If it is a new junction/crossroad then record it in RobotData
+        * getLocation creates a new Point, so it is only called once for both coordinates
         */
-        if(beenBeforeExits(robot) == 1){
-            robotData.recordJunction(robot.getLocation().x, robot.getLocation().y, robot.getHeading());
+        if(beenBeforeExits() == 1){
+            Point location = robot.getLocation();
+            robotData.recordJunction(location.x, location.y, robot.getHeading());
+            if (metrics != null) metrics.junction();
             robotData.printJunction();
         }
         int resultDirection=0;
         int nonPassageExits = 0;
-        int[] directions = {IRobot.AHEAD, IRobot.RIGHT, IRobot.LEFT, IRobot.BEHIND};
-        ArrayList < Integer > passageExits = new ArrayList <Integer>();
-
-        /*Looks around the robot and stores the relative passage exits along with the number of non-passage spaces*/
-        for(int i = 0; i<directions.length; i++) {
-            if (robot.look(directions[i]) == IRobot.PASSAGE)
-                passageExits.add(directions[i]);
-            else if (robot.look(directions[i]) == IRobot.BEENBEFORE)
-                nonPassageExits++;
-            else continue;
-        }
+
+        /*Stores the relative passage exits as a bitmask, along with the number of non-passage spaces*/
+        int passageExits = around.passageMask();
+        nonPassageExits = beenBeforeExits();
 
         /*If the robot is in a crossroad*/
-        if (nonwallExits(robot) == 4) {
+        if (nonwallExits() == 4) {
             if(nonPassageExits == 4){
 
                 /*If all directions are beenBefores then choose randomly*/
-                resultDirection = randomDirection(robot);
+                resultDirection = randomDirection();
                 return resultDirection;     /*return statement so that method is exited here*/
             }
-            if (passageExits.size() == 1)
-                resultDirection = passageExits.get(0);      /*If only one passage exit is surrounding the robot*/
-            else{
-
-                /*If multiple passage exits exist, choose randomly between them*/
-                int randomInt = randomNumber(passageExits.size());
-                if (randomInt == 0) resultDirection = passageExits.get(0);
-                else if (randomInt == 1) resultDirection = passageExits.get(1);
-                else if (randomInt == 2 ) resultDirection = passageExits.get(2);
-                else resultDirection = passageExits.get(3);
-            }
+            resultDirection = Neighbourhood.randomExit(passageExits, random);   /*The only passage exit, or a random one if there are several*/
         }
 
         /*If the robot is in a juction*/
-        if (nonwallExits(robot) == 3) {
+        if (nonwallExits() == 3) {
             if(nonPassageExits == 3){
 
                 /*If all directions are beenBefores then choose randomly*/
-                resultDirection = randomDirection(robot);
+                resultDirection = randomDirection();
                 return resultDirection;     /*return statement so that method is exited here*/
             }
-            if (passageExits.size() == 1)
-                resultDirection = passageExits.get(0);      /*If only one passage exit is surrounding the robot*/
-            else{
-
-                /*If multiple passage exits exist, choose randomly between them*/
-                int randomInt = randomNumber(passageExits.size());
-                if (randomInt == 0) resultDirection = passageExits.get(0);
-                else if (randomInt == 1) resultDirection = passageExits.get(1);
-                else resultDirection = passageExits.get(2);
-            }
+            resultDirection = Neighbourhood.randomExit(passageExits, random);   /*The only passage exit, or a random one if there are several*/
         }
         return resultDirection;
     }
@@ -296,6 +213,7 @@ public class Ex1 {
      * It will also set pollRun back to 0
      */
     public void reset() {
+        if (trace != null) trace.reset();       /*The next poll starts a new run in the trace*/
         robotData.resetJunctionCounter();
         explorerMode = 1;
         pollRun = 0;
@@ -310,15 +228,20 @@ public class Ex1 {
      * @param robot     object of IRobot class
      */
     public void controlRobot(IRobot robot){
+        long pollStart = metrics == null ? 0 : metrics.startPoll();
+        int heading = robot.getHeading();
+        around.scan(robot);                     /*Look around once, every decision below reads from this*/
 
-        /*This allows for the arraylist of JunctionRecorder objects to be cleared every time a new maze is called*/
+        /*This allows for the recorded junctions to be cleared every time a new maze is called*/
         if ((robot.getRuns() == 0) && (pollRun == 0)){
-            robotData = new RobotData();
+            robotData = new RobotData(robot.getMaze());
         }
         if(explorerMode == 1)
             exploreControl(robot);
         else backtrackControl(robot);
         pollRun++;
+        if (trace != null) trace.record(robot, around, heading, explorerMode, robotData.junctionCounter);
+        if (metrics != null) metrics.endPoll(pollStart, explorerMode, robotData.junctionCounter, Neighbourhood.LOOKS);
     }
 
     /**
@@ -330,19 +253,19 @@ public class Ex1 {
      * @param robot     Object of IRobot class
      */
     private void exploreControl(IRobot robot){
-        int exits = nonwallExits(robot);
+        int exits = nonwallExits();
         int direction = 0;
 
         /*Calling relevant method depending on number of non-Wall exits*/
         switch(exits) {
             case (1):
-                direction = deadEnd(robot);
+                direction = deadEnd();
                 if (pollRun != 0) {
                     explorerMode = 0;       /*Will only backtrack from a dead-end if it is not the beginning*/
                 }
                 break;
             case (2):
-                direction = corridor(robot);
+                direction = corridor();
                 break;
             case (3):
                 direction = junctionAndCrossroads(robot);
@@ -359,35 +282,36 @@ public class Ex1 {
      * If robot is at a dead-end or corridor, it behaves as normal by calling the dead-end/corridor function
      * If the robot begins a maze in a corridor, it will choose a passage exit and set into exploring mode
      * If the robot is at a junction/crossroad and there is a passage exit available, it will choose that and change into exploring mode
-     * If the robot is at a junction/crossroad and there isn't a passage exit, it will search for thejunction in the JunctionInfo arraylist
+     * If the robot is at a junction/crossroad and there isn't a passage exit, it will look up the junction in RobotData
      * and retrieve the heading it arrived from in that juction, and will move in the opposite heading.
      *
      * @param robot
      */
     private void backtrackControl(IRobot robot){
         int initialHeading, newHeading;
-        int openExits = nonwallExits(robot);
+        int openExits = nonwallExits();
         int direction = 0;
 
         /*Calling relevant method depending on number of non-Wall exits*/
         if (openExits == 1) {
-            direction = deadEnd(robot);
+            direction = deadEnd();
         }
         else if(openExits == 2){
-            direction = corridor(robot);
-            if (passageExits(robot) > 0) {      /*This allows the robot to function on a maze where it spawns in a corridor*/
+            direction = corridor();
+            if (passageExits() > 0) {      /*This allows the robot to function on a maze where it spawns in a corridor*/
                 explorerMode = 1;
             }
         }
         else{
-            if (passageExits(robot) > 0) {
+            if (passageExits() > 0) {
                 explorerMode = 1;               /*If a passage exit exists then it has not been explored*/
                 direction = junctionAndCrossroads(robot);
             }
             else{
 
-                /*If no passage exit exists then it the junction has been fully explored and has been stored in JunctionInfo*/
-                initialHeading = robotData.searchJunction(robot.getLocation().x, robot.getLocation().y);
+                /*If no passage exit exists then it the junction has been fully explored and has been recorded in RobotData*/
+                Point location = robot.getLocation();
+                initialHeading = robotData.searchJunction(location.x, location.y);
                 newHeading = oppositeHeading(initialHeading);       /*Move in opposite heading relative to arrived heading*/
                 robot.setHeading(newHeading);
                 direction = IRobot.AHEAD;
@@ -416,21 +340,30 @@ public class Ex1 {
     }
 
     /**
-     *This is the RobotData class, which contains an arraylist of JunctionRecorder objects
-     * Whenever a junction/crossroad is visited for the first time, a new object of type JunctionRecorder is created
-     * This object is then added to the JunctionInfo arraylist
-     * In this class, the robot can also parse through all existing junction/crossroads using the set of unique co-ordinates
-     * in order to find the arrived-from heading for the specified junction/crossroad
+     *This is the RobotData class, which stores the arrived-from heading of every junction/crossroad
+     * Instead of an arraylist of JunctionRecorder objects, the headings are stored in a single int array with one
+     * entry per square of the maze, at index y*width + x, where 0 means that the square is not a recorded junction.
+     * This means that searching for a junction is a single array lookup instead of a scan through every junction,
+     * and no object is created per junction. The latest junction is kept separately so that it can be printed.
      */
     class RobotData{
         private int junctionCounter;
-        private ArrayList<JunctionRecorder> junctionInfo = new ArrayList<JunctionRecorder>();
+        private final int width;                /*Width of the maze, used to turn coordinates into an index*/
+        private final int[] arrivedHeadings;    /*Arrived-from heading of each junction, 0 if there is none*/
+        private int latestX;
+        private int latestY;
+        private int latestHeading;
 
         /**
          * When a new instance of RobotData is created the junctionCounter is reset
+         * and the junction store is sized from the maze
+         *
+         * @param maze      The maze which the robot is currently in
          */
-        private RobotData(){
+        private RobotData(Maze maze){
             junctionCounter = 0;
+            width = maze.getWidth();
+            arrivedHeadings = new int[maze.getWidth() * maze.getHeight()];
         }
 
         /**
@@ -442,8 +375,8 @@ public class Ex1 {
 
         /**
          *recordJunction is called when the robot encounters a new junction/crossroad
-         *It creates a new object of type JunctionRecorder every time
-         *Next it stores this object in the arraylist JunctionInfo
+         * It stores the arrived-from heading at the index of the junction, unless the junction was already recorded
+         * (the first heading is kept, in the same way that the first matching junction used to be found by the search)
          * Then it increments junctionCounter to store the number of unique junctions encountered
          *
          * @param xLoc      Current x-coordinate
@@ -451,106 +384,36 @@ public class Ex1 {
          * @param head      Arrived-from heading
          */
         private void recordJunction(int xLoc, int yLoc, int head){
-            JunctionRecorder junction = new JunctionRecorder(xLoc, yLoc, head);
-            junctionInfo.add(junction);
+            int index = yLoc * width + xLoc;
+            if (arrivedHeadings[index] == 0) {
+                arrivedHeadings[index] = head;
+            }
+            latestX = xLoc;
+            latestY = yLoc;
+            latestHeading = head;
             junctionCounter++;
         }
 
         /**
-         *printJunction is called right after a new junction/crossroad is stored in JunctionInfo arraylist
-         * This method takes the x-coordinate, y-coordinate, and the arrived-from heading of the last junction stored in JunctionInfo
-         * Then it converts the int value of arrived-from heading into a string equivalent
-         * Lastly it prints the coordinate and heading of the the latest unique junction that the robot explored
+         *printJunction is called right after a new junction/crossroad is recorded
+         * It passes the junction number, coordinates and arrived-from heading of the latest junction to the JunctionLog,
+         * which prints them on a background thread as "Junction N (x=X,y=Y) heading HEADING"
+         * so the robot does not wait for the console. Nothing is done at all when the log is switched off
          */
         private void printJunction(){
-            JunctionRecorder latestJunction = junctionInfo.get((junctionInfo.size()-1));    /*The latest junction will have index one less than size*/
-
-            /*Using the getter methods in JunctionRecorder class*/
-            int x = latestJunction.getX();
-            int y = latestJunction.getY();
-            int head = latestJunction.getHeading();
-
-            /*Converting the integer arrived-from headings into equivalent string values*/
-            String headingString = "";
-            if(head == 1000) headingString = "NORTH";
-            else if(head == 1001) headingString = "EAST";
-            else if(head == 1002) headingString = "SOUTH";
-            else headingString = "WEST";
-
-            /*Print using concatenation*/
-            System.out.println("Junction " + junctionCounter + " (x=" + x + ",y=" + y + ") " + "heading " + headingString);
-    
+            if (JunctionLog.ENABLED) JunctionLog.junction(junctionCounter, latestX, latestY, latestHeading);
         }
 
         /**
          *searchJunction is called when the robot has no passage exits at junction/crossroad
-         * It will use the input coordinates to search the JunctionInfo arraylist for an object with the same x and y
-         * Then the value of arrivedHeading for that object will be returned
+         * It will use the input coordinates to look up the arrived-from heading stored at that square
          *
          * @param x     x-coordinate of robot at fully-explored junction/crossroad
          * @param y     y-coordinate of robot at fully-explored junction/crossroad
-         * @return      arrivedHeading for the junctio/Crossroad at specified coordinates
+         * @return      arrivedHeading for the junctio/Crossroad at specified coordinates, 0 if it was never recorded
          */
         private int searchJunction(int x, int y){
-            for(int i = 0; i<junctionInfo.size(); i++){
-
-                /*Check JunctionInfo arraylist for object with the same x and y values as the input*/
-                if((x == junctionInfo.get(i).x) && (y == junctionInfo.get(i).y)){
-                    return junctionInfo.get(i).arrivedHeading;
-                }
-            }
-
-            /*This statement is only to complete the method but will never be executed as the x and y coordinate will always be stored in JunctionInfo*/
-            return 0;
-        }
-    }
-
-    /**
-     * Each JunctionRecorder object contains the local state information for each unique junction/crossroad visited
-     * This class is called every time a new junction/crossroad is reached, and the getter methods are used to provide the
-     * JunctionRecorder object with attributes such as coordinates and the arrived from heading.
-     *
-     */
-    class JunctionRecorder {
-        int x;
-        int y;
-        int arrivedHeading;
-
-        /**
-         *JunctionRecorder stores the value of x-coordinate, y-coordinate, and arrivedHeading using this keyword
-         *
-         * @param x     Value of x-coordinate
-         * @param y     Value of y-coordinate
-         * @param arrivedHeading        Value of heading first arrived in a junction or crossroad
-         */
-        public JunctionRecorder(int x, int y, int arrivedHeading){
-            this.x = x;
-            this.y = y;
-            this.arrivedHeading = arrivedHeading;
-        }
-
-        /**
-         * Getter method to return x-coordinate
-         * @return      this.x-coordinate
-         */
-        public int getX(){
-            return this.x;
-        }
-
-        /**
-         * Getter method to return y-coordinate
-         * @return      this.y-coordinate
-         */
-        public int getY(){
-            return this.y;
-        }
-
-        /**
-         * Getter method to return arrivedHeading
-         * @return      this.arrivedHeading
-         */
-        public int getHeading(){
-            return this.arrivedHeading;
+            return arrivedHeadings[y * width + x];
         }
     }
 }
@@ -1,7 +1,6 @@
 import uk.ac.warwick.dcs.maze.logic.IRobot;
 import java.util.Arrays;
-import java.util.ArrayList;
-import java.util.Stack;
+import java.util.SplittableRandom;
 /*
  * Preamble for Ex3:
  * In this Ex3, having built on Ex2, the code now works for loopy mazes in addition to prim maze.
@@ -26,141 +25,80 @@ import java.util.Stack;
  * @author Param Bhatia
  * @since 10-12-2021
  */
-public class Ex3 {
+public class Ex3 implements PolledController {
+    private final Neighbourhood around = new Neighbourhood();   /*The four squares around the robot, scanned once per poll*/
+    private final SplittableRandom random;                      /*Owned by this controller, so robots on other threads never share it*/
     private int pollRun = 0;                /*Incremented after each pass*/
     private int explorerMode = 1;           /*Set robot into exploring mode at the beginning*/
+    private final TraceRecorder trace = TraceRecorder.forController();     /*null unless -Dmaze.trace is set*/
+    private final ControllerMetrics metrics = ControllerMetrics.forController("Ex3");     /*null unless -Dmaze.metrics is set*/
 
     /*Create a stack to store the arrived-from heading at a junction/crossroad*/
-    Stack<Integer> recentHeading = new Stack<>();
+    HeadingStack recentHeading = new HeadingStack();
 
 
     /**
-     * randomDirection is used to check all four directions and determine how many non-wall exits exist
-     * If there is more than one exit, it chooses randomly between all exits
-     *
-     * @param robot     Object of the IRobot class
-     * @return          randomly chosen non-wall direction for robot to move in
+     * The no-argument constructor is used by the GUI, and picks a different random seed every time
      */
-    private int randomDirection(IRobot robot){
-
-        /*Arraylist is used as it has a flexible size and number of exits can vary making this desirable*/
-        ArrayList < Integer > emptyWalls = new ArrayList <Integer>();
-        int[] directions = {IRobot.AHEAD, IRobot.BEHIND, IRobot.LEFT, IRobot.RIGHT};
-        int states = 0;
-
-        /*Looks in all directions and increments states variable if there is no wall in that direction*/
-        for(int j = 0; j<directions.length; j++) {
-            if (robot.look(directions[j]) != IRobot.WALL) {
-                emptyWalls.add(directions[j]);  //adding non-wall direction to emptyWalls arraylist
-                states++;
-            }
-        }
-        int randomNum = randomNumber(states);
-
-        /*Allocates a random direction to face depending on number of non-wall exits*/
-        if (states == 2){
-            if(randomNum == 0) return emptyWalls.get(0);
-            else return emptyWalls.get(1);
-        }
-        else if (states == 3){
-            if(randomNum == 0) return emptyWalls.get(0);
-            else if (randomNum == 1) return emptyWalls.get(1);
-            else return emptyWalls.get(2);
-        }
-        else{
-            if(randomNum == 0) return emptyWalls.get(0);
-            else if (randomNum == 1) return emptyWalls.get(1);
-            else if (randomNum == 2) return emptyWalls.get(2);
-            else return emptyWalls.get(3);
-        }
+    public Ex3() {
+        random = new SplittableRandom();
+    }
 
+    /**
+     * This constructor makes every random choice depend only on the seed, so that a run can be repeated exactly
+     *
+     * @param seed      Seed for the random choices at junctions and crossroads
+     */
+    public Ex3(long seed) {
+        random = new SplittableRandom(seed);
     }
 
     /**
-     * randomNumber is used to generate a random integer
+     * randomDirection chooses randomly between all of the non-wall exits around the robot
      *
-     * @param range     The number of possible randomly generated integers
-     * @return          random integer between 0 and ('range' - 1)
+     * @return          randomly chosen non-wall direction for robot to move in
      */
-    private int randomNumber(int range){
-        int newRand = (int) (Math.random()*range);  //typecast Math.random()*range as int
-        return newRand;
+    private int randomDirection(){
+        return Neighbourhood.randomExit(around.nonwallMask(), random);
     }
 
     /**
-     * beenBeforeExits checks in all four directions to count the number of beenBefore squares
+     * beenBeforeExits returns the number of beenBefore squares surrounding the robot, from the scan at the start of this poll
      *
-     * @param robot     Object of the IRobot class
      * @return          Number of beenBefore squares surrounding the robot currently
      */
-    private int beenBeforeExits(IRobot robot){
-        int[] directions = {IRobot.AHEAD, IRobot.BEHIND, IRobot.LEFT, IRobot.RIGHT};
-        int beenBeforeSquares = 0;
-
-        /*Looks around to count how many beenBefore squares there are*/
-        for(int i = 0; i < 4; i++){
-            if(robot.look(directions[i]) == IRobot.BEENBEFORE) {
-                beenBeforeSquares++;
-            }
-        }
-        return beenBeforeSquares;
+    private int beenBeforeExits(){
+        return around.beenBeforeExits();
     }
 
     /**
-     * nonWallExits checks in all four directions to count the number of non-Wall exits
+     * nonWallExits returns the number of non-Wall exits surrounding the robot, from the scan at the start of this poll
      *
-     * @param robot     Object of the IRobot class
      * @return          Number of non-Wall exits surrounding the robot currently
      */
-    private int nonwallExits(IRobot robot){
-        int[] directions = {IRobot.AHEAD, IRobot.BEHIND, IRobot.LEFT, IRobot.RIGHT};
-        int availableSpaces = 0;
-
-        /*Looks around the robot in to count how many non-wall spaces there are*/
-        for(int i = 0; i < 4; i++){
-            if(robot.look(directions[i]) != IRobot.WALL) {
-                availableSpaces++;
-            }
-        }
-        return availableSpaces;
+    private int nonwallExits(){
+        return around.nonwallExits();
     }
 
     /**
-     * passageExits checks in all four directions to count the number of passage exits
+     * passageExits returns the number of passage exits surrounding the robot, from the scan at the start of this poll
      *
-     * @param robot     Object of the IRobot class
      * @return          Number of passage exits currently surrounding the robot
      */
-    private int passageExits(IRobot robot){
-        int[] directions = {IRobot.AHEAD, IRobot.BEHIND, IRobot.LEFT, IRobot.RIGHT};
-        int passages = 0;
-
-        /*Looks around the robot in to count how many passages there are*/
-        for(int i = 0; i < 4; i++){
-            if(robot.look(directions[i]) == IRobot.PASSAGE)
-                passages++;
-        }
-        return passages;
+    private int passageExits(){
+        return around.passageExits();
     }
 
     /**
      * deadEnd is called if the robot is at a dead-end
-     * Look around for the only open exit and move in that direction
+     * Find the only open exit and move in that direction
      *
-     * @param robot     Object of the IRobot class
      * @return          Direction for robot to move in
      */
-    private int deadEnd(IRobot robot) {
-        int result = 0;
-        int[] directions = {IRobot.AHEAD, IRobot.BEHIND, IRobot.LEFT, IRobot.RIGHT};
+    private int deadEnd() {
 
-        /*Looks around the robot to find the only open exit*/
-        for (int i = 0; i < 4; i++) {
-            if (robot.look(directions[i]) != IRobot.WALL) {
-                result = directions[i];
-            }
-        }
-        return result;
+        /*The only open exit is the only bit set in the non-wall mask*/
+        return IRobot.AHEAD + Integer.numberOfTrailingZeros(around.nonwallMask());
     }
 
     /**
@@ -168,16 +106,15 @@ public class Ex3 {
      * If the robot can move ahead without crashing, then move ahead,
      * Otherwise move left or right, whichever does not have a wall
      *
-     * @param robot     Object of the IRobot class
      * @return          Direction for robot to move when in a corridor
      */
-    private int corridor(IRobot robot) {
+    private int corridor() {
         int result = 0;
-        if (robot.look(IRobot.AHEAD) != IRobot.WALL) {
+        if (around.look(IRobot.AHEAD) != IRobot.WALL) {
             result = IRobot.AHEAD;
         }
         else {
-            if (robot.look(IRobot.LEFT) != IRobot.WALL){
+            if (around.look(IRobot.LEFT) != IRobot.WALL){
                 result = IRobot.LEFT;   /*If robot cannot move forward, then either right or left is non-Wall*/
             }
             else result = IRobot.RIGHT;
@@ -202,11 +139,10 @@ public class Ex3 {
     private int junctionAndCrossroads(IRobot robot){
         int resultDirection = 0;
         int nonPassageExits =0;
-        int[] directions = {IRobot.AHEAD, IRobot.RIGHT, IRobot.LEFT, IRobot.BEHIND};
-        ArrayList < Integer > passageExits = new ArrayList <Integer>();
 
-        if(beenBeforeExits(robot) == 1){
+        if(beenBeforeExits() == 1){
             recentHeading.push(robot.getHeading());         /*Adds the heading to the recentHeading stack*/
+            if (metrics != null) metrics.junction();
         }
         else{
             if (explorerMode == 1) {
@@ -217,17 +153,12 @@ public class Ex3 {
             }
         }
 
-        /*Looks around the robot and stores the relative passage exits along with the number of non-passage spaces*/
-        for(int i = 0; i<directions.length; i++) {
-            if (robot.look(directions[i]) == IRobot.PASSAGE)
-                passageExits.add(directions[i]);
-            else if (robot.look(directions[i]) == IRobot.BEENBEFORE)
-                nonPassageExits++;
-            else continue;
-        }
+        /*Stores the relative passage exits as a bitmask, along with the number of non-passage spaces*/
+        int passageExits = around.passageMask();
+        nonPassageExits = beenBeforeExits();
 
         /*If the robot is in a crossroad*/
-        if (nonwallExits(robot) == 4) {
+        if (nonwallExits() == 4) {
             if(nonPassageExits == 4){
 
                 /*If all directions are beenBefores then turn around*/
@@ -235,37 +166,18 @@ public class Ex3 {
                 resultDirection = IRobot.AHEAD;
                 return resultDirection;                 /*return statement so that method is exited here*/
             }
-            if (passageExits.size() == 1)
-            resultDirection = passageExits.get(0);      /*If only one passage exit is surrounding the robot*/
-            else{
-
-                /*If multiple passage exits exist, choose randomly between them*/
-                int randomInt = randomNumber(passageExits.size());
-                if (randomInt == 0) resultDirection = passageExits.get(0);
-                else if (randomInt == 1) resultDirection = passageExits.get(1);
-                else if (randomInt == 2 ) resultDirection = passageExits.get(2);
-                else resultDirection = passageExits.get(3);
-            }
+            resultDirection = Neighbourhood.randomExit(passageExits, random);   /*The only passage exit, or a random one if there are several*/
         }
 
         /*If the robot is in a juction*/
-        if (nonwallExits(robot) == 3) {
+        if (nonwallExits() == 3) {
             if(nonPassageExits == 3){
 
                 /*If all directions are beenBefores then choose randomly*/
-                resultDirection = randomDirection(robot);
+                resultDirection = randomDirection();
                 return resultDirection;                 /*return statement so that method is exited here*/
             }
-            if (passageExits.size() == 1)
-                resultDirection = passageExits.get(0);  /*If only one passage exit is surrounding the robot*/
-            else{
-
-                /*If multiple passage exits exist, choose randomly between them*/
-                int randomInt = randomNumber(passageExits.size());
-                if (randomInt == 0) resultDirection = passageExits.get(0);
-                else if (randomInt == 1) resultDirection = passageExits.get(1);
-                else resultDirection = passageExits.get(2);
-            }
+            resultDirection = Neighbourhood.randomExit(passageExits, random);   /*The only passage exit, or a random one if there are several*/
         }
         return resultDirection;
     }
@@ -277,6 +189,7 @@ public class Ex3 {
      * This will save memory as the stack will be cleared whenever maze is reset
      */
     public void reset() {
+        if (trace != null) trace.reset();       /*The next poll starts a new run in the trace*/
         recentHeading.clear();
         explorerMode = 1;
         pollRun = 0;
@@ -290,10 +203,15 @@ public class Ex3 {
      * @param robot     Object of IRobot class
      */
     public void controlRobot(IRobot robot){
+        long pollStart = metrics == null ? 0 : metrics.startPoll();
+        int heading = robot.getHeading();
+        around.scan(robot);                     /*Look around once, every decision below reads from this*/
         if(explorerMode == 1)
             exploreControl(robot);
         else backtrackControl(robot);
         pollRun++;
+        if (trace != null) trace.record(robot, around, heading, explorerMode, recentHeading.size());
+        if (metrics != null) metrics.endPoll(pollStart, explorerMode, recentHeading.size(), Neighbourhood.LOOKS);
     }
 
     /**
@@ -305,19 +223,19 @@ public class Ex3 {
      * @param robot     Object of IRobot class
      */
     private void exploreControl(IRobot robot){
-        int exits = nonwallExits(robot);
+        int exits = nonwallExits();
         int direction = 0;
 
         /*Calling relevant method depending on number of non-Wall exits*/
         switch(exits) {
             case (1):
-                direction = deadEnd(robot);
+                direction = deadEnd();
                 if (pollRun != 0) {
                     explorerMode = 0;       /*Will only backtrack from a dead-end if it is not the beginning*/
                 }
                 break;
             case (2):
-                direction = corridor(robot);
+                direction = corridor();
                 break;
             case (3):
                 direction = junctionAndCrossroads(robot);
@@ -338,28 +256,34 @@ public class Ex3 {
      * because once the robot fully explores a junction and backtracked to that same junction again it shows that junction does not lead to the target
      * so the robot will take the arrivedHeading for the specified junction/crossroad and head out using the opposite Heading
      * The heading at the top of the recentHeading stack will also be removed in this case because the junction does not lead to the target
+     * If the recentHeading stack is empty there is no junction to go back to, so a random non-Wall exit is chosen until a passage exit is found
      *
      * @param robot         Object of IRobot calss
      */
     private void backtrackControl(IRobot robot){
-        int openExits = nonwallExits(robot);
+        int openExits = nonwallExits();
         int direction = 0;
 
         /*Calling relevant method depending on number of non-Wall exits*/
         if (openExits == 1) {
-            direction = deadEnd(robot);
+            direction = deadEnd();
         }
         else if(openExits == 2){
-            direction = corridor(robot);
-            if (passageExits(robot) > 0) {      /*This allows the robot to function on a maze where it spawns in a corridor*/
+            direction = corridor();
+            if (passageExits() > 0) {      /*This allows the robot to function on a maze where it spawns in a corridor*/
                 explorerMode = 1;
             }
         }
         else{
-            if (passageExits(robot) > 0) {
+            if (passageExits() > 0) {
                 direction = junctionAndCrossroads(robot);
                 explorerMode = 1;               /*If a passage exit exists then it has not been explored*/
             }
+            else if (recentHeading.isEmpty()) {
+
+                /*There is no junction to go back to, e.g. the robot started on a loop and has come round it, so wander until a passage exit turns up*/
+                direction = randomDirection();
+            }
             else{
 
                 /*Here the robot has explored a junction/crossroad fully and backtracked to it, so the relevant heading must be removed*/
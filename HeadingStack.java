@@ -0,0 +1,84 @@
+import uk.ac.warwick.dcs.maze.logic.IRobot;
+import java.util.Arrays;
+import java.util.EmptyStackException;
+/**
+ * HeadingStack is a stack of robot headings (NORTH, EAST, SOUTH or WEST), used instead of java.util.Stack of Integer
+ * Since there are only four headings, each one is stored in 2 bits, so 32 headings fit into one long.
+ * Unlike java.util.Stack it is not synchronized, and it does not box the headings, so pushing and popping never creates objects
+ * (apart from when the array has to grow).
+ *
+ * @author Param Bhatia
+ * @since 18-10-2026
+ */
+public class HeadingStack {
+    private long[] words = new long[4];
+    private int size = 0;
+
+    /**
+     * push adds a heading to the top of the stack
+     *
+     * @param heading       Heading between IRobot.NORTH and IRobot.WEST
+     */
+    public void push(int heading) {
+        if (heading < IRobot.NORTH || heading > IRobot.WEST) {
+            throw new IllegalArgumentException("Only headings can be pushed onto a HeadingStack: " + heading);
+        }
+        if (size == words.length * 32) {
+            words = Arrays.copyOf(words, words.length * 2);
+        }
+        int shift = (size & 31) * 2;
+        words[size >>> 5] = (words[size >>> 5] & ~(3L << shift)) | ((long) (heading - IRobot.NORTH) << shift);
+        size++;
+    }
+
+    /**
+     * pop removes the heading at the top of the stack
+     *
+     * @return      Heading which was at the top of the stack
+     */
+    public int pop() {
+        int heading = peek();
+        size--;
+        return heading;
+    }
+
+    /**
+     * peek returns the heading at the top of the stack without removing it
+     *
+     * @return      Heading at the top of the stack
+     */
+    public int peek() {
+        if (size == 0) {
+            throw new EmptyStackException();
+        }
+        return elementAt(size - 1);
+    }
+
+    /**
+     * elementAt returns the heading at the given position, where 0 is the bottom of the stack
+     *
+     * @param index     Position of the heading
+     * @return          Heading at that position
+     */
+    public int elementAt(int index) {
+        if (index < 0 || index >= size) {
+            throw new ArrayIndexOutOfBoundsException(index + " >= " + size);
+        }
+        return ((int) (words[index >>> 5] >>> ((index & 31) * 2)) & 3) + IRobot.NORTH;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * clear empties the stack, but keeps the array it has grown to so that the next maze does not have to grow it again
+     */
+    public void clear() {
+        size = 0;
+    }
+}
@@ -0,0 +1,203 @@
+import uk.ac.warwick.dcs.maze.logic.Event;
+import uk.ac.warwick.dcs.maze.logic.IEvent;
+import uk.ac.warwick.dcs.maze.logic.IRobot;
+import uk.ac.warwick.dcs.maze.logic.Maze;
+import java.awt.Point;
+import java.util.Arrays;
+/*
+ * HeadlessRobot Preamble:
+ * The RobotImpl class inside maze-environment.jar does not store its own location when it moves,
+ * it broadcasts a ROBOT_RELOCATE event on the static EventBus and only moves once it hears that event back.
+ * This means that only one RobotImpl can be moved per JVM, and every step takes the global EventBus lock.
+ *
+ * HeadlessRobot follows exactly the same rules as RobotImpl (look, face, setHeading, steps, collisions, runs
+ * and the beenBefore squares), but keeps all of its state in its own fields, so that many robots can be
+ * driven at the same time on different threads, e.g. by the BatchRunner.
+ */
+/**
+ * This is an IRobot which can be used without the GUI or the EventBus
+ * The controller is polled by whoever owns the robot, and advance is then called to move one square in the current heading
+ *
+ * @author Param Bhatia
+ * @since 18-10-2026
+ */
+public class HeadlessRobot implements SimulatedRobot {
+    private Maze maze;
+    private int x;                          /*Current x-coordinate*/
+    private int y;                          /*Current y-coordinate*/
+    private int targetX;
+    private int targetY;
+    private int heading = IRobot.EAST;      /*Same starting heading as RobotImpl*/
+    private boolean[][] trackerGrid;        /*Squares which the robot has been on during this run*/
+    private long steps;
+    private long collisions;
+    private long looks;                     /*Number of look calls during this run*/
+    private int runs;
+    private SimulationEventBus bus;         /*null unless setEventBus is called*/
+
+    /**
+     * setMaze places the robot at the start of a new maze, and clears all the runs
+     *
+     * @param maze      The maze the robot will explore
+     */
+    public void setMaze(Maze maze) {
+        this.maze = maze;
+        trackerGrid = new boolean[maze.getWidth()][maze.getHeight()];
+        targetX = maze.getFinish().x;
+        targetY = maze.getFinish().y;
+        runs = 0;
+        restart();
+    }
+
+    /**
+     * reset is the equivalent of pressing reset in the GUI
+     * The robot goes back to the start, all squares are cleared, and the number of runs is incremented
+     */
+    public void reset() {
+        for (int i = 0; i < trackerGrid.length; i++) {
+            Arrays.fill(trackerGrid[i], false);
+        }
+        runs++;
+        restart();
+        if (bus != null) bus.broadcast(new Event(IEvent.ROBOT_RESET, null));
+    }
+
+    /**
+     * restart moves the robot back to the start square and clears the step and collision counters
+     */
+    private void restart() {
+        x = maze.getStart().x;
+        y = maze.getStart().y;
+        trackerGrid[x][y] = true;
+        steps = 0;
+        collisions = 0;
+        looks = 0;
+    }
+
+    /**
+     * advance moves the robot one square in its current heading
+     * If that square is a wall then the robot does not move and a collision is counted instead
+     */
+    public void advance() {
+        int newX = x;
+        int newY = y;
+        switch (heading) {
+            case IRobot.NORTH: newY--; break;
+            case IRobot.EAST: newX++; break;
+            case IRobot.SOUTH: newY++; break;
+            case IRobot.WEST: newX--; break;
+        }
+        if (newX < 0 || newY < 0 || newX >= maze.getWidth() || newY >= maze.getHeight()) {
+            throw new RuntimeException("Robot cannot advance off the edge of the maze!");
+        }
+        if (maze.getCellType(newX, newY) == Maze.PASSAGE) {
+            x = newX;
+            y = newY;
+            trackerGrid[x][y] = true;
+            steps++;
+            if (bus != null) publishMove();
+        }
+        else {
+            collisions++;
+            if (bus != null && bus.hasClients()) bus.broadcast(new Event(IEvent.ROBOT_COLLISION, getLocation()));
+        }
+    }
+
+    private void publishMove() {
+        bus.location(x, y);
+        if (isAtTarget() && bus.hasClients()) bus.broadcast(new Event(IEvent.ROBOT_FINISHED, getLocation()));
+    }
+
+    public void setEventBus(SimulationEventBus bus) {
+        this.bus = bus;
+    }
+
+    /**
+     * isAtTarget checks whether the robot has reached the finish square of the maze
+     *
+     * @return      true if the robot is on the target
+     */
+    public boolean isAtTarget() {
+        return x == targetX && y == targetY;
+    }
+
+    public int look(int direction) {
+        if (direction < IRobot.AHEAD || direction > IRobot.LEFT) {
+            throw new RuntimeException("The robot can only look AHEAD, BEHIND, LEFT and RIGHT.");
+        }
+        looks++;
+        int lookX = x;
+        int lookY = y;
+
+        /*Absolute direction, where 0 is north and 3 is west*/
+        switch ((direction - IRobot.AHEAD + heading - IRobot.NORTH) % 4) {
+            case 0: lookY--; break;
+            case 1: lookX++; break;
+            case 2: lookY++; break;
+            case 3: lookX--; break;
+        }
+        if (trackerGrid[lookX][lookY]) return IRobot.BEENBEFORE;
+        if (maze.getCellType(lookX, lookY) == Maze.PASSAGE) return IRobot.PASSAGE;
+        return IRobot.WALL;
+    }
+
+    public void face(int direction) {
+        if (direction < IRobot.AHEAD || direction > IRobot.LEFT) {
+            throw new RuntimeException("The robot can only face AHEAD, BEHIND, LEFT and RIGHT.");
+        }
+        heading = (heading + direction - IRobot.AHEAD) % 4 + IRobot.NORTH;
+    }
+
+    public void setHeading(int heading) {
+        if (heading < IRobot.NORTH || heading > IRobot.WEST) {
+            throw new RuntimeException("The robot's heading can only be NORTH, SOUTH, EAST or WEST.");
+        }
+        this.heading = heading;
+    }
+
+    public int getHeading() {
+        return heading;
+    }
+
+    public Point getLocation() {
+        return new Point(x, y);
+    }
+
+    public Point getTargetLocation() {
+        return new Point(targetX, targetY);
+    }
+
+    public Maze getMaze() {
+        return maze;
+    }
+
+    public int getRuns() {
+        return runs;
+    }
+
+    public void sleep(int millis) {
+        try {
+            Thread.sleep(millis);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public long getSteps() {
+        return steps;
+    }
+
+    public long getCollisions() {
+        return collisions;
+    }
+
+    /**
+     * getLooks is used to check how many times the controller looked around during this run
+     *
+     * @return      Number of calls to look since the start of the run
+     */
+    public long getLooks() {
+        return looks;
+    }
+}
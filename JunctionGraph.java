@@ -0,0 +1,233 @@
+import uk.ac.warwick.dcs.maze.logic.IRobot;
+import uk.ac.warwick.dcs.maze.logic.Maze;
+import java.awt.Point;
+import java.util.Arrays;
+/**
+ * JunctionGraph is the map of a maze which GrandFinale learns on its first run
+ * The nodes are the start square, every junction/crossroad the robot passes through, and the target.
+ * The edges are the corridors the robot has walked all the way along between two nodes, each with the heading
+ * it left the first node in and its length in steps. A corridor which ends in a dead-end is never an edge.
+ *
+ * The robot's square is worked out from the headings it leaves each square in, so robot.getLocation() is only called once
+ * per run. GrandFinale never walks into a wall, so this is always the square the robot is really on.
+ *
+ * Once the target has been reached, shortestRoute runs Dijkstra's algorithm over the edges, which gives the heading
+ * to leave each node on the way in, so the robot only has to set its heading at the start and at each junction/crossroad.
+ * Everything is kept in int arrays, one slot per square for the node numbers, and four arrays for the edges.
+ *
+ * @author Param Bhatia
+ * @since 18-10-2026
+ */
+public class JunctionGraph {
+    private int width;
+    private int startCell;
+    private int targetCell;
+    private int[] nodeAt = new int[0];      /*Node number + 1 of each square, 0 if the square is not a node*/
+    private int nodes;
+
+    private int[] edgeFrom = new int[16];
+    private int[] edgeTo = new int[16];
+    private int[] edgeHeading = new int[16];    /*Heading the robot leaves edgeFrom in*/
+    private int[] edgeLength = new int[16];
+    private int edges;
+
+    private int cell;                       /*Square the robot is on, y * width + x*/
+    private int heading;                    /*Heading the robot arrived at this square in*/
+    private int fromNode = -1;              /*Node the robot last left, -1 after a dead-end*/
+    private int fromHeading;
+    private int length;
+
+    /**
+     * start clears the graph for a new first run, with the robot on the start square
+     *
+     * @param robot     Object of the IRobot class, at the start of its first run
+     */
+    public void start(IRobot robot) {
+        Maze maze = robot.getMaze();
+        width = maze.getWidth();
+        if (nodeAt.length != width * maze.getHeight()) {
+            nodeAt = new int[width * maze.getHeight()];
+        }
+        else {
+            Arrays.fill(nodeAt, 0);
+        }
+        Point location = robot.getLocation();
+        Point target = robot.getTargetLocation();
+        startCell = location.y * width + location.x;
+        targetCell = target.y * width + target.x;
+        cell = startCell;
+        heading = robot.getHeading();
+        nodes = 0;
+        edges = 0;
+        fromNode = -1;
+    }
+
+    /**
+     * step is called once per poll of the first run, after the robot has chosen its heading
+     * If the robot is on a node, the corridor it has just come along is recorded in both directions
+     *
+     * @param exits         Number of non-wall exits around the robot
+     * @param departure     Heading the robot is about to move in
+     */
+    public void step(int exits, int departure) {
+        if (exits >= 3 || cell == startCell) {
+            int node = nodeOf(cell);
+            if (fromNode >= 0) {
+                addCorridor(fromNode, node, fromHeading, heading);
+            }
+            fromNode = node;
+            fromHeading = departure;
+            length = 0;
+        }
+        else if (exits == 1) {
+            fromNode = -1;                  /*A dead-end, so this corridor does not join two nodes*/
+        }
+        length++;
+        heading = departure;
+        switch (departure) {
+            case IRobot.NORTH: cell -= width; break;
+            case IRobot.EAST: cell++; break;
+            case IRobot.SOUTH: cell += width; break;
+            default: cell--;
+        }
+    }
+
+    /**
+     * finish records the last corridor of the first run, into the target
+     *
+     * @return      true if the robot reached the target, so that there is a route to it
+     */
+    public boolean finish() {
+        if (cell != targetCell || fromNode < 0) return false;
+        addCorridor(fromNode, nodeOf(targetCell), fromHeading, heading);
+        fromNode = -1;
+        return true;
+    }
+
+    /**
+     * shortestRoute finds the shortest route from the start to the target using only the corridors which have been walked
+     *
+     * @param route     Cleared, then filled with the heading to leave the start and each node on the route in, in order
+     * @return          Number of steps on the route, or -1 if the target is not connected to the start
+     */
+    public int shortestRoute(HeadingStack route) {
+        route.clear();
+        if (nodeAt.length == 0 || nodeAt[startCell] == 0 || nodeAt[targetCell] == 0) return -1;
+        int start = nodeAt[startCell] - 1;
+        int target = nodeAt[targetCell] - 1;
+
+        /*Edges are grouped by the node they leave from, so that each node's edges are next to each other*/
+        int[] first = new int[nodes + 1];
+        for (int e = 0; e < edges; e++) first[edgeFrom[e] + 1]++;
+        for (int n = 0; n < nodes; n++) first[n + 1] += first[n];
+        int[] order = new int[edges];
+        int[] next = Arrays.copyOf(first, nodes);
+        for (int e = 0; e < edges; e++) order[next[edgeFrom[e]]++] = e;
+
+        int[] distance = new int[nodes];
+        int[] arrivedBy = new int[nodes];       /*Edge used to reach each node on the shortest route*/
+        Arrays.fill(distance, Integer.MAX_VALUE);
+        distance[start] = 0;
+        arrivedBy[start] = -1;
+
+        /*Binary heap of (distance << 32 | node), nodes which were already reached more cheaply are skipped when popped*/
+        long[] heap = new long[Math.max(4, edges + 1)];
+        int heapSize = 0;
+        heap[heapSize++] = start;
+        while (heapSize > 0) {
+            long top = heap[0];
+            heap[0] = heap[--heapSize];
+            siftDown(heap, heapSize);
+            int node = (int) top;
+            int nodeDistance = (int) (top >>> 32);
+            if (nodeDistance > distance[node]) continue;
+            if (node == target) break;
+            for (int i = first[node]; i < first[node + 1]; i++) {
+                int e = order[i];
+                int newDistance = nodeDistance + edgeLength[e];
+                if (newDistance < distance[edgeTo[e]]) {
+                    distance[edgeTo[e]] = newDistance;
+                    arrivedBy[edgeTo[e]] = e;
+                    if (heapSize == heap.length) heap = Arrays.copyOf(heap, heap.length * 2);
+                    heap[heapSize] = ((long) newDistance << 32) | edgeTo[e];
+                    siftUp(heap, heapSize++);
+                }
+            }
+        }
+        if (distance[target] == Integer.MAX_VALUE) return -1;
+
+        /*Walk back from the target, then push the headings in the order they are needed*/
+        int hops = 0;
+        for (int node = target; node != start; node = edgeFrom[arrivedBy[node]]) hops++;
+        int[] headings = new int[hops];
+        for (int node = target; node != start; node = edgeFrom[arrivedBy[node]]) {
+            headings[--hops] = edgeHeading[arrivedBy[node]];
+        }
+        for (int h : headings) route.push(h);
+        return distance[target];
+    }
+
+    private static void siftUp(long[] heap, int i) {
+        long value = heap[i];
+        while (i > 0 && heap[(i - 1) / 2] > value) {
+            heap[i] = heap[(i - 1) / 2];
+            i = (i - 1) / 2;
+        }
+        heap[i] = value;
+    }
+
+    private static void siftDown(long[] heap, int size) {
+        if (size == 0) return;
+        long value = heap[0];
+        int i = 0;
+        while (2 * i + 1 < size) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && heap[child + 1] < heap[child]) child++;
+            if (heap[child] >= value) break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = value;
+    }
+
+    public int nodes() {
+        return nodes;
+    }
+
+    public int edges() {
+        return edges;
+    }
+
+    private int nodeOf(int square) {
+        if (nodeAt[square] == 0) {
+            nodeAt[square] = ++nodes;
+        }
+        return nodeAt[square] - 1;
+    }
+
+    /**
+     * addCorridor records the corridor from one node to another, and the same corridor walked the other way
+     */
+    private void addCorridor(int from, int to, int departure, int arrival) {
+        addEdge(from, to, departure);
+        addEdge(to, from, oppositeHeading(arrival));
+    }
+
+    private void addEdge(int from, int to, int departure) {
+        if (edges == edgeFrom.length) {
+            edgeFrom = Arrays.copyOf(edgeFrom, edges * 2);
+            edgeTo = Arrays.copyOf(edgeTo, edges * 2);
+            edgeHeading = Arrays.copyOf(edgeHeading, edges * 2);
+            edgeLength = Arrays.copyOf(edgeLength, edges * 2);
+        }
+        edgeFrom[edges] = from;
+        edgeTo[edges] = to;
+        edgeHeading[edges] = departure;
+        edgeLength[edges] = length;
+        edges++;
+    }
+
+    private static int oppositeHeading(int heading) {
+        return (heading - IRobot.NORTH + 2) % 4 + IRobot.NORTH;
+    }
+}
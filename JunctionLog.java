@@ -0,0 +1,145 @@
+import uk.ac.warwick.dcs.maze.logic.IRobot;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+/*
+ * JunctionLog Preamble:
+ * Ex1 prints every new junction with System.out.println straight from controlRobot, which builds the string and then waits for
+ * the console on every junction. On a large Prim maze that is thousands of blocking writes, and they take longer than the solving.
+ *
+ * Instead, a junction is now written as one fixed-size event (two longs) into a bounded ring buffer, and a background thread
+ * turns the events into exactly the same lines as before and writes them through a buffered writer. The ring buffer is the
+ * bounded multi-producer queue of D. Vyukov: every slot has a sequence number, a robot claims a slot with one compareAndSet on the tail
+ * and publishes it by setting the slot's sequence, so robots on different threads never block each other or the console.
+ * If the console cannot keep up and the buffer is full, the event is dropped and counted, and the count is printed instead.
+ *
+ * Properties:
+ *      maze.log.level      OFF or INFO (default). With OFF, ENABLED is a static final false, so the JIT removes the logging entirely
+ *      maze.log.sample     log 1 junction in every N (default 1), chosen by the junction number so it is the same on every run
+ *      maze.log.buffer     number of events the ring buffer holds (default 65536, rounded up to a power of 2)
+ * Any events still in the buffer are written out when the JVM exits.
+ */
+/**
+ * This is the asynchronous, lock-free log of the junctions found by Ex1
+ *
+ * @author Param Bhatia
+ * @since 18-10-2026
+ */
+public class JunctionLog {
+    public static final String LEVEL_PROPERTY = "maze.log.level";
+    public static final String SAMPLE_PROPERTY = "maze.log.sample";
+    public static final String BUFFER_PROPERTY = "maze.log.buffer";
+
+    /**
+     * ENABLED is read once when the class is loaded, so that a check of it costs nothing when logging is off
+     */
+    public static final boolean ENABLED = !"OFF".equalsIgnoreCase(System.getProperty(LEVEL_PROPERTY, "INFO"));
+    private static final int SAMPLE = Math.max(1, Integer.getInteger(SAMPLE_PROPERTY, 1));
+    private static final int CAPACITY = Integer.highestOneBit(Math.max(2, Integer.getInteger(BUFFER_PROPERTY, 65536) - 1)) << 1;
+    private static final int MASK = CAPACITY - 1;
+    private static final String[] HEADINGS = {"NORTH", "EAST", "SOUTH", "WEST"};
+
+    private static final AtomicLongArray SEQUENCE = new AtomicLongArray(CAPACITY);
+    private static final long[] JUNCTIONS = new long[CAPACITY];     /*Junction number and heading of each event*/
+    private static final long[] SQUARES = new long[CAPACITY];       /*x and y of each event*/
+    private static final AtomicLong TAIL = new AtomicLong();
+    private static final LongAdder DROPPED = new LongAdder();
+    private static long head = 0;                                   /*Only used by the writer thread*/
+    private static volatile Thread writer;
+
+    static {
+        for (int i = 0; i < CAPACITY; i++) {
+            SEQUENCE.set(i, i);
+        }
+    }
+
+    private JunctionLog() {
+    }
+
+    /**
+     * junction logs a new junction, the caller should check ENABLED first
+     *
+     * @param number        Number of the junction, counting from 1
+     * @param x             x-coordinate of the junction
+     * @param y             y-coordinate of the junction
+     * @param heading       Arrived-from heading
+     */
+    public static void junction(int number, int x, int y, int heading) {
+        if ((number - 1) % SAMPLE != 0) return;
+        if (writer == null) startWriter();
+        long position;
+        while (true) {
+            position = TAIL.get();
+            long difference = SEQUENCE.get((int) position & MASK) - position;
+            if (difference == 0) {
+                if (TAIL.compareAndSet(position, position + 1)) break;
+            }
+            else if (difference < 0) {
+                DROPPED.increment();        /*The buffer is full*/
+                return;
+            }
+        }
+        int slot = (int) position & MASK;
+        JUNCTIONS[slot] = ((long) number << 32) | (heading - IRobot.NORTH);
+        SQUARES[slot] = ((long) x << 32) | (y & 0xFFFFFFFFL);
+        SEQUENCE.lazySet(slot, position + 1);
+    }
+
+    private static synchronized void startWriter() {
+        if (writer != null) return;
+        Thread thread = new Thread(JunctionLog::writeLoop, "junction-log");
+        thread.setDaemon(true);
+        thread.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(JunctionLog::flush));
+        writer = thread;
+    }
+
+    /**
+     * writeLoop writes everything in the buffer, then sleeps for a millisecond when there is nothing left
+     */
+    private static void writeLoop() {
+        while (true) {
+            if (!flush()) LockSupport.parkNanos(1000000L);
+        }
+    }
+
+    /**
+     * flush writes out every event which has been published, and the number of dropped events if there are any
+     * It is only called by the writer thread, or by the shutdown hook once the robots have stopped
+     *
+     * @return      true if anything was written
+     */
+    private static synchronized boolean flush() {
+        if (SEQUENCE.get((int) head & MASK) != head + 1 && DROPPED.sum() == 0) return false;
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out), 1 << 13);
+        boolean wrote = false;
+        try {
+            while (true) {
+                int slot = (int) head & MASK;
+                if (SEQUENCE.get(slot) != head + 1) break;
+                long junction = JUNCTIONS[slot];
+                long square = SQUARES[slot];
+                SEQUENCE.lazySet(slot, head + CAPACITY);
+                head++;
+                out.write("Junction " + (junction >>> 32) + " (x=" + (square >> 32) + ",y=" + (int) square + ") heading "
+                        + HEADINGS[(int) junction & 3] + "\n");
+                wrote = true;
+            }
+            long dropped = DROPPED.sumThenReset();
+            if (dropped > 0) {
+                out.write("(" + dropped + " junctions not logged, the log could not keep up)\n");
+                wrote = true;
+            }
+            out.flush();
+        }
+        catch (IOException e) {
+            /*System.out never throws, it sets its error flag instead*/
+        }
+        return wrote;
+    }
+}
@@ -0,0 +1,193 @@
+import uk.ac.warwick.dcs.maze.logic.IMazeGenerator;
+import uk.ac.warwick.dcs.maze.logic.Maze;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+/*
+ * JunctionStoreBenchmark Preamble:
+ * Ex1 records a junction the first time it reaches it, and looks it up again when it backtracks through it
+ * once it has been fully explored. This benchmark replays that pattern on 500x500 Prim mazes with a depth-first walk
+ * (record in pre-order, look up in post-order) and times two junction stores:
+ *
+ * scan    an arraylist of one object per junction, searched from the start (the old Ex1.RobotData)
+ * dense   one int per square at index y*width + x (the current Ex1.RobotData)
+ *
+ * It then times Ex1 itself on the same mazes with its junction printing thrown away, so the console is not measured.
+ *
+ * Usage: java JunctionStoreBenchmark [mazes] [size]
+ * e.g.   java -cp maze-environment.jar:. JunctionStoreBenchmark 5 501
+ */
+/**
+ * This is the benchmark of the junction store used by Ex1
+ *
+ * @author Param Bhatia
+ * @since 18-10-2026
+ */
+public class JunctionStoreBenchmark {
+
+    public static void main(String[] args) {
+        System.setProperty(JunctionLog.LEVEL_PROPERTY, "OFF");     /*Ex1 is timed without its junction log*/
+        int mazeCount = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        int size = args.length > 1 ? Integer.parseInt(args[1]) : 501;
+        IMazeGenerator generator = MazeFactory.generator(false, size);
+
+        for (int i = 0; i < mazeCount; i++) {
+            Maze maze = generator.generateMaze();
+            int[] pattern = junctionPattern(maze);
+            int junctions = pattern.length / 2;
+
+            long startTime = System.nanoTime();
+            long scanCheck = scanStore(pattern, maze.getWidth());
+            long scanNanos = System.nanoTime() - startTime;
+
+            startTime = System.nanoTime();
+            long denseCheck = denseStore(pattern, maze);
+            long denseNanos = System.nanoTime() - startTime;
+
+            startTime = System.nanoTime();
+            long steps = runEx1(maze);
+            long ex1Nanos = System.nanoTime() - startTime;
+
+            System.out.println("maze " + (i + 1) + ": junctions=" + junctions
+                    + " scan=" + String.format("%.2f", scanNanos / 1e6) + "ms"
+                    + " dense=" + String.format("%.2f", denseNanos / 1e6) + "ms"
+                    + (scanCheck == denseCheck ? "" : " MISMATCH")
+                    + " | Ex1 " + steps + " steps in " + String.format("%.2f", ex1Nanos / 1e6) + "ms");
+        }
+    }
+
+    /**
+     * junctionPattern walks the whole maze depth first from the start
+     * Each junction gives +index when it is first reached and -(index+1) when the walk leaves it for the last time
+     *
+     * @param maze      Maze to walk
+     * @return          Record and look up events in the order Ex1 would make them
+     */
+    private static int[] junctionPattern(Maze maze) {
+        int width = maze.getWidth();
+        int height = maze.getHeight();
+        int[] dx = {0, 1, 0, -1};
+        int[] dy = {-1, 0, 1, 0};
+        boolean[] visited = new boolean[width * height];
+        int[] stack = new int[width * height];
+        int[] nextDirection = new int[width * height];
+        int[] events = new int[16];
+        int eventCount = 0;
+        int depth = 0;
+
+        int start = maze.getStart().y * width + maze.getStart().x;
+        stack[depth++] = start;
+        visited[start] = true;
+        while (depth > 0) {
+            int cell = stack[depth - 1];
+            int x = cell % width;
+            int y = cell / width;
+            if (nextDirection[cell] == 0 && isJunction(maze, x, y)) {
+                if (eventCount == events.length) events = Arrays.copyOf(events, eventCount * 2);
+                events[eventCount++] = cell;
+            }
+            if (nextDirection[cell] == 4) {
+                depth--;
+                if (isJunction(maze, x, y)) {
+                    if (eventCount == events.length) events = Arrays.copyOf(events, eventCount * 2);
+                    events[eventCount++] = -(cell + 1);
+                }
+                continue;
+            }
+            int d = nextDirection[cell]++;
+            int next = (y + dy[d]) * width + (x + dx[d]);
+            if (maze.getCellType(x + dx[d], y + dy[d]) == Maze.PASSAGE && !visited[next]) {
+                visited[next] = true;
+                stack[depth++] = next;
+            }
+        }
+        return Arrays.copyOf(events, eventCount);
+    }
+
+    private static boolean isJunction(Maze maze, int x, int y) {
+        int exits = 0;
+        if (maze.getCellType(x, y - 1) == Maze.PASSAGE) exits++;
+        if (maze.getCellType(x + 1, y) == Maze.PASSAGE) exits++;
+        if (maze.getCellType(x, y + 1) == Maze.PASSAGE) exits++;
+        if (maze.getCellType(x - 1, y) == Maze.PASSAGE) exits++;
+        return exits >= 3;
+    }
+
+    private static long scanStore(int[] pattern, int width) {
+        ArrayList<Junction> junctions = new ArrayList<Junction>();
+        long check = 0;
+        for (int event : pattern) {
+            if (event >= 0) {
+                junctions.add(new Junction(event % width, event / width, 1000 + event % 4));
+            }
+            else {
+                int x = (-event - 1) % width;
+                int y = (-event - 1) / width;
+                for (int i = 0; i < junctions.size(); i++) {
+                    if (junctions.get(i).x == x && junctions.get(i).y == y) {
+                        check += junctions.get(i).heading;
+                        break;
+                    }
+                }
+            }
+        }
+        return check;
+    }
+
+    private static long denseStore(int[] pattern, Maze maze) {
+        int width = maze.getWidth();
+        int[] headings = new int[maze.getWidth() * maze.getHeight()];
+        long check = 0;
+        for (int event : pattern) {
+            if (event >= 0) {
+                int x = event % width;
+                int y = event / width;
+                if (headings[y * width + x] == 0) headings[y * width + x] = 1000 + event % 4;
+            }
+            else {
+                int x = (-event - 1) % width;
+                int y = (-event - 1) / width;
+                check += headings[y * width + x];
+            }
+        }
+        return check;
+    }
+
+    /**
+     * runEx1 solves the maze with Ex1, with System.out switched off while it runs
+     */
+    private static long runEx1(Maze maze) {
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            Ex1 controller = new Ex1();
+            HeadlessRobot robot = new HeadlessRobot();
+            robot.setMaze(maze);
+            while (!robot.isAtTarget()) {
+                controller.controlRobot(robot);
+                robot.advance();
+            }
+            controller.reset();
+            return robot.getSteps();
+        }
+        finally {
+            System.setOut(console);
+        }
+    }
+
+    /**
+     * Junction is the same shape as the old Ex1.JunctionRecorder
+     */
+    private static class Junction {
+        final int x;
+        final int y;
+        final int heading;
+
+        Junction(int x, int y, int heading) {
+            this.x = x;
+            this.y = y;
+            this.heading = heading;
+        }
+    }
+}
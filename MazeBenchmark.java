@@ -0,0 +1,290 @@
+import uk.ac.warwick.dcs.maze.logic.EventBus;
+import uk.ac.warwick.dcs.maze.logic.IMazeGenerator;
+import uk.ac.warwick.dcs.maze.logic.IRobot;
+import uk.ac.warwick.dcs.maze.logic.Maze;
+import uk.ac.warwick.dcs.maze.logic.RobotImpl;
+import java.io.FileWriter;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+/*
+ * MazeBenchmark Preamble:
+ * The benchmarks are JMH benchmarks in the jmh source set of build.gradle (src/jmh/java/mazebench), run with gradle jmh.
+ * This is the same set of benchmarks as a self-contained harness in the style of JMH, which only needs maze-environment.jar,
+ * and is kept as the fallback for when Gradle cannot download JMH, e.g. on a machine without network access.
+ * Every benchmark is run for a number of warmup iterations which are thrown away, then for a number of measured iterations,
+ * and the results are written as JSON in the same shape as JMH's -rf json output (benchmark, mode, params, primaryMetric,
+ * secondaryMetrics), so the files can be tracked over time with the same tools.
+ *
+ * controlRobot     steps/s of Ex1, Ex2, Ex3, GrandFinale and AStarController on seeded Prim and Loopy mazes of 51, 201 and 1001 squares across,
+ *                  run through a HeadlessRobot, with Ex1's junction printing thrown away
+ * generateMaze     ms per maze of the PrimGenerator and LoopyGenerator in maze-environment.jar, and of FastPrimGenerator and TiledMazeGenerator
+ * look / face      ns per call on RobotImpl (which broadcasts on the EventBus when it turns), on HeadlessRobot and on PackedRobot
+ *
+ * Every benchmark also reports the bytes allocated per operation by the benchmark thread, from
+ * com.sun.management.ThreadMXBean, in the same way as JMH's gc profiler reports gc.alloc.rate.norm.
+ *
+ * Usage: java MazeBenchmark [-warmup N] [-iterations N] [-sizes 51,201,1001] [-out results.json]
+ * e.g.   java -Xmx2g -cp maze-environment.jar:. MazeBenchmark -out mazebench.json
+ */
+/**
+ * This is the benchmark harness for the controllers, the maze generators and the robot itself
+ *
+ * @author Param Bhatia
+ * @since 18-10-2026
+ */
+public class MazeBenchmark {
+    private static final String[] CONTROLLERS = {"Ex1", "Ex2", "Ex3", "GrandFinale", "AStarController"};
+    private static final long SEED = 20261018L;     /*All runs use the same mazes, so results can be compared between commits*/
+    private static volatile long sink;              /*Results are added to this so that the JIT cannot remove the work*/
+
+    private int warmup = 3;
+    private int iterations = 5;
+    private int[] sizes = {51, 201, 1001};
+    private String out = "mazebench.json";
+    private final List<String> results = new ArrayList<String>();
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty(JunctionLog.LEVEL_PROPERTY, "OFF");     /*Ex1 is timed without its junction log*/
+        MazeBenchmark benchmark = new MazeBenchmark();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-warmup": benchmark.warmup = Integer.parseInt(args[++i]); break;
+                case "-iterations": benchmark.iterations = Integer.parseInt(args[++i]); break;
+                case "-sizes": benchmark.sizes = parseSizes(args[++i]); break;
+                case "-out": benchmark.out = args[++i]; break;
+                default:
+                    System.out.println("Usage: java MazeBenchmark [-warmup N] [-iterations N] [-sizes 51,201,1001] [-out results.json]");
+                    System.exit(1);
+            }
+        }
+        benchmark.run();
+        System.exit(0);
+    }
+
+    private static int[] parseSizes(String list) {
+        String[] parts = list.split(",");
+        int[] sizes = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) sizes[i] = Integer.parseInt(parts[i].trim());
+        return sizes;
+    }
+
+    private void run() throws Exception {
+        for (int size : sizes) {
+            for (boolean loopy : new boolean[] {false, true}) {
+                Maze[] mazes = seededMazes(loopy, size);
+                for (String name : CONTROLLERS) {
+                    controlRobot(Class.forName(name), loopy, size, mazes);
+                }
+            }
+        }
+        for (int size : sizes) {
+            generateMaze(MazeFactory.generator(false, size), "PrimGenerator", size);
+            generateMaze(MazeFactory.generator(true, size), "LoopyGenerator", size);
+            generateMaze(new FastPrimGenerator(size, SEED), "FastPrimGenerator", size);
+            generateMaze(new TiledMazeGenerator(size, 256, false, SEED), "TiledMazeGenerator", size);
+        }
+        robotCalls();
+
+        try (Writer writer = new FileWriter(out)) {
+            writer.write("[\n" + String.join(",\n", results) + "\n]\n");
+        }
+        System.out.println("results written to " + out);
+    }
+
+    /**
+     * seededMazes generates the mazes for one controlRobot benchmark, about 2 million squares in total per size
+     */
+    private static Maze[] seededMazes(boolean loopy, int size) {
+        SeededPrimGenerator generator = MazeFactory.generator(loopy, size, SEED);
+        Maze[] mazes = new Maze[Math.max(1, 2000000 / (size * size))];
+        for (int i = 0; i < mazes.length; i++) {
+            generator.setSeed(MazeFactory.mazeSeed(SEED, i));
+            mazes[i] = generator.generateMaze();
+        }
+        return mazes;
+    }
+
+    /**
+     * controlRobot solves every maze once per iteration with a new seeded controller, and scores the steps per second
+     * A run which throws (e.g. Ex2 on a loopy maze) still counts the steps it made before it threw, and a run which is
+     * still going after 10 polls per square (e.g. Ex1 going round a loop) is stopped there, both count as unsolved
+     */
+    private void controlRobot(Class<?> controllerClass, boolean loopy, int size, Maze[] mazes) throws Exception {
+        PrintStream console = System.out;
+        double[] scores = new double[iterations];
+        double[] allocations = new double[iterations];
+        long unsolved = 0;
+        long maxPolls = 10L * size * size;
+        HeadlessRobot robot = new HeadlessRobot();
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            for (int i = -warmup; i < iterations; i++) {
+                long steps = 0;
+                long bytesBefore = threads.getCurrentThreadAllocatedBytes();
+                long startTime = System.nanoTime();
+                for (int m = 0; m < mazes.length; m++) {
+                    PolledController controller = BatchRunner.newController(controllerClass, MazeFactory.mazeSeed(SEED, m));
+                    robot.setMaze(mazes[m]);
+                    robot.setHeading(IRobot.EAST);
+                    long polls = 0;
+                    try {
+                        while (!robot.isAtTarget() && polls++ < maxPolls) {
+                            controller.controlRobot(robot);
+                            robot.advance();
+                        }
+                    }
+                    catch (RuntimeException e) {
+                        /*Counted as unsolved below*/
+                    }
+                    if (i == 0 && !robot.isAtTarget()) unsolved++;
+                    steps += robot.getSteps();
+                }
+                long nanos = System.nanoTime() - startTime;
+                long bytes = threads.getCurrentThreadAllocatedBytes() - bytesBefore;
+                if (i >= 0) {
+                    scores[i] = steps / (nanos / 1e9);
+                    allocations[i] = bytes / (double) Math.max(1, steps);
+                }
+            }
+        }
+        finally {
+            System.setOut(console);
+        }
+        String params = "\"controller\": \"" + controllerClass.getName() + "\", \"generator\": \"" + (loopy ? "loopy" : "prim")
+                + "\", \"size\": \"" + size + "\", \"unsolved\": \"" + unsolved + "\"";
+        record("MazeBenchmark.controlRobot", "thrpt", params, scores, "steps/s", allocations, "B/step");
+    }
+
+    /**
+     * generateMaze times one generator, e.g. one from maze-environment.jar, which is what the GUI uses
+     */
+    private void generateMaze(IMazeGenerator generator, String name, int size) {
+        int perIteration = Math.max(1, 2000000 / (size * size));
+        double[] scores = new double[iterations];
+        double[] allocations = new double[iterations];
+        for (int i = -warmup; i < iterations; i++) {
+            long bytesBefore = threads.getCurrentThreadAllocatedBytes();
+            long startTime = System.nanoTime();
+            for (int m = 0; m < perIteration; m++) {
+                sink += generator.generateMaze().getFinish().x;
+            }
+            long nanos = System.nanoTime() - startTime;
+            long bytes = threads.getCurrentThreadAllocatedBytes() - bytesBefore;
+            if (i >= 0) {
+                scores[i] = nanos / 1e6 / perIteration;
+                allocations[i] = bytes / (double) perIteration;
+            }
+        }
+        String params = "\"generator\": \"" + name + "\", \"size\": \"" + size + "\"";
+        record("MazeBenchmark.generateMaze", "avgt", params, scores, "ms/op", allocations, "B/op");
+    }
+
+    /**
+     * robotCalls times look and face on each of the robots, standing at the start of a 201 square Prim maze
+     * RobotImpl broadcasts every change of heading on the static EventBus, so it is added to the bus like in the GUI
+     */
+    private void robotCalls() {
+        Maze maze = MazeFactory.generator(false, 201, SEED).generateMaze();
+        RobotImpl robotImpl = new RobotImpl();
+        EventBus.addClient(robotImpl);
+        robotImpl.setMaze(maze);
+        HeadlessRobot headless = new HeadlessRobot();
+        headless.setMaze(maze);
+        PackedRobot packed = new PackedRobot();
+        packed.setMaze(maze);
+
+        IRobot[] robots = {robotImpl, headless, packed};
+        for (IRobot robot : robots) {
+            String params = "\"robot\": \"" + robot.getClass().getSimpleName() + "\"";
+            double[] scores = new double[iterations];
+            double[] allocations = new double[iterations];
+            int calls = 1000000;
+            for (int i = -warmup; i < iterations; i++) {
+                long bytesBefore = threads.getCurrentThreadAllocatedBytes();
+                long startTime = System.nanoTime();
+                long total = 0;
+                for (int c = 0; c < calls; c++) {
+                    total += robot.look(IRobot.AHEAD + (c & 3));
+                }
+                sink += total;
+                long nanos = System.nanoTime() - startTime;
+                long bytes = threads.getCurrentThreadAllocatedBytes() - bytesBefore;
+                if (i >= 0) {
+                    scores[i] = nanos / (double) calls;
+                    allocations[i] = bytes / (double) calls;
+                }
+            }
+            record("MazeBenchmark.look", "avgt", params, scores, "ns/op", allocations, "B/op");
+
+            calls = 100000;
+            for (int i = -warmup; i < iterations; i++) {
+                long bytesBefore = threads.getCurrentThreadAllocatedBytes();
+                long startTime = System.nanoTime();
+                for (int c = 0; c < calls; c++) {
+                    robot.face(IRobot.RIGHT);
+                }
+                sink += robot.getHeading();
+                long nanos = System.nanoTime() - startTime;
+                long bytes = threads.getCurrentThreadAllocatedBytes() - bytesBefore;
+                if (i >= 0) {
+                    scores[i] = nanos / (double) calls;
+                    allocations[i] = bytes / (double) calls;
+                }
+            }
+            record("MazeBenchmark.face", "avgt", params, scores, "ns/op", allocations, "B/op");
+        }
+        EventBus.removeClient(robotImpl);
+    }
+
+    /**
+     * record prints one result and keeps it as a JSON object in JMH's format
+     * The score error is the standard deviation of the measured iterations
+     */
+    private void record(String benchmark, String mode, String params, double[] scores, String unit,
+                        double[] allocations, String allocationUnit) {
+        double score = mean(scores);
+        double allocation = mean(allocations);
+        System.out.println(benchmark + " {" + params.replace("\"", "") + "} " + format(score) + " " + unit
+                + " +- " + format(deviation(scores, score)) + ", " + format(allocation) + " " + allocationUnit);
+
+        StringBuilder raw = new StringBuilder();
+        for (int i = 0; i < scores.length; i++) {
+            if (i > 0) raw.append(", ");
+            raw.append(format(scores[i]));
+        }
+        results.add("  {\n"
+                + "    \"benchmark\": \"" + benchmark + "\",\n"
+                + "    \"mode\": \"" + mode + "\",\n"
+                + "    \"warmupIterations\": " + warmup + ",\n"
+                + "    \"measurementIterations\": " + iterations + ",\n"
+                + "    \"params\": {" + params + "},\n"
+                + "    \"primaryMetric\": {\"score\": " + format(score) + ", \"scoreError\": " + format(deviation(scores, score))
+                + ", \"scoreUnit\": \"" + unit + "\", \"rawData\": [[" + raw + "]]},\n"
+                + "    \"secondaryMetrics\": {\"alloc.norm\": {\"score\": " + format(allocation)
+                + ", \"scoreUnit\": \"" + allocationUnit + "\"}}\n"
+                + "  }");
+    }
+
+    private static double mean(double[] values) {
+        double total = 0;
+        for (double value : values) total += value;
+        return total / Math.max(1, values.length);
+    }
+
+    private static double deviation(double[] values, double mean) {
+        double total = 0;
+        for (double value : values) total += (value - mean) * (value - mean);
+        return values.length > 1 ? Math.sqrt(total / (values.length - 1)) : 0;
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+}
@@ -0,0 +1,267 @@
+import uk.ac.warwick.dcs.maze.logic.Maze;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+/*
+ * MazeCorpus Preamble:
+ * Every BatchRunner and MazeBenchmark run generates its mazes again, which takes longer than solving them for the larger sizes,
+ * and the mazes are only the same between runs if the generator and its seed are. A corpus is a file of mazes which are
+ * generated once, so that every sweep over it is run on exactly the same mazes.
+ *
+ * The file is the mazes in MazeFile's format one after the other, then an index of where each maze starts, then a footer:
+ *      MazeFile records    one per maze
+ *      long[]              offset of every maze from the start of the file
+ *      long                offset of the index
+ *      int                 number of mazes
+ *      int                 magic, "MZC1"
+ * all little-endian. The index is at the end so that the corpus can be written in one pass without knowing how many mazes there are.
+ *
+ * Mazes are only read when they are asked for, by get(i) or while iterating, so a corpus of many GB can be swept through with
+ * only the mazes being solved in memory. A maze of less than MAP_BYTES is read with a positional FileChannel.read into a buffer
+ * on the heap. Only larger ones are mapped with FileChannel.map: a mapping is only released when it is garbage collected,
+ * so mapping every small maze of a fast sweep would pile up thousands of mappings and could hit the process's limit on them.
+ * The Spliterator splits the index range in half, so corpus.stream().parallel() spreads the mazes between the threads of the common pool.
+ *
+ * Usage: java MazeCorpus create corpus.mzc [-mazes N] [-size N] [-loopy] [-fast] [-seed N]
+ *        java MazeCorpus info corpus.mzc
+ */
+/**
+ * This is a file of many mazes which are read lazily
+ *
+ * @author Param Bhatia
+ * @since 18-10-2026
+ */
+public class MazeCorpus implements Iterable<Maze>, Closeable {
+    public static final int MAGIC = 0x31435A4D;     /*"MZC1" read as a little-endian int*/
+    private static final int FOOTER_BYTES = 16;
+    private static final int MAP_BYTES = 1 << 20;  /*Mazes at least this big are mapped, smaller ones are read*/
+
+    private final FileChannel channel;
+    private final LongBuffer offsets;           /*count + 1 offsets, the last one is where the index starts*/
+    private final int count;
+
+    /**
+     * Opening a corpus only reads its index
+     *
+     * @param file      Corpus written by a MazeCorpus.Writer
+     */
+    public MazeCorpus(File file) throws IOException {
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        long size = channel.size();
+        ByteBuffer footer = ByteBuffer.allocate(FOOTER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        if (size < FOOTER_BYTES || channel.read(footer, size - FOOTER_BYTES) != FOOTER_BYTES || footer.getInt(12) != MAGIC) {
+            channel.close();
+            throw new IOException(file + " is not a maze corpus");
+        }
+        long indexOffset = footer.getLong(0);
+        count = footer.getInt(8);
+        ByteBuffer index = ByteBuffer.allocate(8 * (count + 1)).order(ByteOrder.LITTLE_ENDIAN);
+        index.limit(8 * count);
+        while (index.hasRemaining()) {
+            if (channel.read(index, indexOffset + index.position()) < 0) throw new IOException(file + " is truncated");
+        }
+        index.limit(8 * (count + 1));
+        index.putLong(8 * count, indexOffset);
+        index.clear();
+        offsets = index.asLongBuffer();
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length >= 2 && args[0].equals("create")) {
+            int mazes = 1000;
+            int size = 51;
+            boolean loopy = false;
+            boolean fast = false;
+            long seed = System.nanoTime();
+            for (int i = 2; i < args.length; i++) {
+                switch (args[i]) {
+                    case "-mazes": mazes = Integer.parseInt(args[++i]); break;
+                    case "-size": size = Integer.parseInt(args[++i]); break;
+                    case "-loopy": loopy = true; break;
+                    case "-fast": fast = true; break;
+                    case "-seed": seed = Long.parseLong(args[++i]); break;
+                    default: throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+            SeededGenerator generator = fast ? new FastPrimGenerator(size, seed) : MazeFactory.generator(loopy, size, seed);
+            long startTime = System.nanoTime();
+            create(new File(args[1]), generator, seed, mazes);
+            System.out.printf("%d mazes written to %s in %.1f s (%d bytes)%n", mazes, args[1],
+                    (System.nanoTime() - startTime) / 1e9, new File(args[1]).length());
+        }
+        else if (args.length == 2 && args[0].equals("info")) {
+            try (MazeCorpus corpus = new MazeCorpus(new File(args[1]))) {
+                long startTime = System.nanoTime();
+                long squares = corpus.stream().parallel().mapToLong(maze -> (long) maze.getWidth() * maze.getHeight()).sum();
+                System.out.printf("%d mazes, %d squares, read in %.1f ms%n", corpus.size(), squares, (System.nanoTime() - startTime) / 1e6);
+            }
+        }
+        else {
+            System.out.println("Usage: java MazeCorpus create corpus.mzc [-mazes N] [-size N] [-loopy] [-fast] [-seed N] | info corpus.mzc");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * create writes a corpus of seeded mazes, where maze i is generated from MazeFactory.mazeSeed(seed, i) like BatchRunner -seed
+     *
+     * @param file          Corpus file which will be created or replaced
+     * @param generator     Generator of the mazes
+     * @param seed          Seed of the whole corpus
+     * @param mazes         Number of mazes
+     */
+    public static void create(File file, SeededGenerator generator, long seed, int mazes) throws IOException {
+        try (Writer writer = new Writer(file)) {
+            for (int i = 0; i < mazes; i++) {
+                generator.setSeed(MazeFactory.mazeSeed(seed, i));
+                writer.add(generator.generateMaze());
+            }
+        }
+    }
+
+    /**
+     * @return      Number of mazes in the corpus
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * get reads one maze, the corpus can be read from any number of threads at the same time
+     *
+     * @param index     Number of the maze, from 0 to size() - 1
+     * @return          The maze
+     */
+    public PackedMaze get(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Maze " + index + " of a corpus of " + count);
+        }
+        long offset = offsets.get(index);
+        long length = offsets.get(index + 1) - offset;
+        try {
+            if (length >= MAP_BYTES) return MazeFile.read(channel.map(FileChannel.MapMode.READ_ONLY, offset, length));
+            ByteBuffer buffer = ByteBuffer.allocate((int) length);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, offset + buffer.position()) < 0) throw new IOException("The corpus is truncated");
+            }
+            buffer.flip();
+            return MazeFile.read(buffer);
+        }
+        catch (IOException e) {
+            throw new RuntimeException("Could not read maze " + index + " of the corpus", e);
+        }
+    }
+
+    public Iterator<Maze> iterator() {
+        return new Iterator<Maze>() {
+            private int next = 0;
+
+            public boolean hasNext() {
+                return next < count;
+            }
+
+            public Maze next() {
+                if (next >= count) throw new java.util.NoSuchElementException();
+                return get(next++);
+            }
+        };
+    }
+
+    public Spliterator<Maze> spliterator() {
+        return new Mazes(0, count);
+    }
+
+    /**
+     * stream reads the mazes in order, or in parallel after calling parallel() on it
+     */
+    public Stream<Maze> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Mazes is a range of the corpus, which is split in half for parallel streams
+     */
+    private class Mazes implements Spliterator<Maze> {
+        private int from;
+        private final int to;
+
+        Mazes(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        public boolean tryAdvance(Consumer<? super Maze> action) {
+            if (from >= to) return false;
+            action.accept(get(from++));
+            return true;
+        }
+
+        public Spliterator<Maze> trySplit() {
+            int middle = (from + to) >>> 1;
+            if (middle <= from) return null;
+            Spliterator<Maze> half = new Mazes(from, middle);
+            from = middle;
+            return half;
+        }
+
+        public long estimateSize() {
+            return to - from;
+        }
+
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+        }
+    }
+
+    /**
+     * Writer appends mazes to a new corpus file, and writes the index when it is closed
+     */
+    public static class Writer implements Closeable {
+        private final FileChannel channel;
+        private long[] offsets = new long[64];
+        private int count = 0;
+
+        public Writer(File file) throws IOException {
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        }
+
+        public void add(Maze maze) throws IOException {
+            if (count == offsets.length) offsets = java.util.Arrays.copyOf(offsets, 2 * count);
+            offsets[count++] = channel.position();
+            MazeFile.write(maze, channel);
+        }
+
+        public void close() throws IOException {
+            try {
+                long indexOffset = channel.position();
+                ByteBuffer buffer = ByteBuffer.allocate(8 * count + FOOTER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                for (int i = 0; i < count; i++) {
+                    buffer.putLong(offsets[i]);
+                }
+                buffer.putLong(indexOffset).putInt(count).putInt(MAGIC);
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            finally {
+                channel.close();
+            }
+        }
+    }
+}
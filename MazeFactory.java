@@ -0,0 +1,73 @@
+import uk.ac.warwick.dcs.maze.generators.LoopyGenerator;
+import uk.ac.warwick.dcs.maze.generators.PrimGenerator;
+import uk.ac.warwick.dcs.maze.logic.IMazeGenerator;
+import java.lang.reflect.Field;
+/**
+ * MazeFactory creates maze generators of a given size without going through the GUI
+ * The PrimGenerator only lets its size be changed from its configuration panel, so the private
+ * mazeWidth and mazeHeight fields are set directly, in the same way PolledControllerWrapper reaches RobotImpl.advance
+ *
+ * The size is the width/height of the whole grid (including the outer walls), as returned by Maze.getWidth()
+ * so a size of 501 gives a maze of 250 by 250 cells.
+ *
+ * @author Param Bhatia
+ * @since 18-10-2026
+ */
+public class MazeFactory {
+
+    private MazeFactory() {
+    }
+
+    /**
+     * generator creates a new generator, each generator must only be used by one thread at a time
+     *
+     * @param loopy     true for a LoopyGenerator, false for a PrimGenerator
+     * @param size      Width and height of the generated maze grid
+     * @return          Generator which will produce mazes of the given size
+     */
+    public static IMazeGenerator generator(boolean loopy, int size) {
+        PrimGenerator generator = loopy ? new LoopyGenerator() : new PrimGenerator();
+        int cells = Math.max(1, (size - 1) / 2);
+        try {
+            setField(generator, "mazeWidth", cells);
+            setField(generator, "mazeHeight", cells);
+        }
+        catch (ReflectiveOperationException e) {
+            throw new RuntimeException("Could not set the size of the maze generator", e);
+        }
+        return generator;
+    }
+
+    /**
+     * generator creates a seeded generator, where the same seed always gives the same maze
+     *
+     * @param loopy     true for a SeededLoopyGenerator, false for a SeededPrimGenerator
+     * @param size      Width and height of the generated maze grid
+     * @param seed      Seed of the first maze
+     * @return          Generator which will produce mazes of the given size
+     */
+    public static SeededPrimGenerator generator(boolean loopy, int size, long seed) {
+        return loopy ? new SeededLoopyGenerator(size, seed) : new SeededPrimGenerator(size, seed);
+    }
+
+    /**
+     * mazeSeed gives every maze of a batch its own seed, so that maze number 'index' is the same whichever thread generates it
+     * The index is spread over the whole long in the same way as SplittableRandom, so that neighbouring mazes are not alike
+     *
+     * @param seed      Seed of the whole batch
+     * @param index     Number of the maze in the batch
+     * @return          Seed for that maze
+     */
+    public static long mazeSeed(long seed, int index) {
+        long z = seed + (index + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static void setField(PrimGenerator generator, String name, int value) throws ReflectiveOperationException {
+        Field field = PrimGenerator.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.setInt(generator, value);
+    }
+}
@@ -0,0 +1,154 @@
+import uk.ac.warwick.dcs.maze.logic.Maze;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+/*
+ * MazeFile Preamble:
+ * Maze(File, IRobot) and Maze.writeToFile are text, one character per square, and every square has to be parsed into the int grid,
+ * so loading a corpus of large mazes takes far longer than solving them. This is a binary format for the same mazes.
+ *
+ * A maze is a 32 byte header followed by its walls, all little-endian:
+ *      int     magic, "MZB1"
+ *      int     width
+ *      int     height
+ *      int     start x, start y
+ *      int     finish x, finish y
+ *      int     number of longs of walls
+ *      long[]  the walls, exactly as PackedMaze stores them (row by row, with a wall around the outside, set bits are walls)
+ *
+ * Since the walls are the same bits as a PackedMaze, loading is one bulk copy out of a FileChannel.map of the file, and writing
+ * streams the longs through a 64KB buffer without building the file in memory. A file can hold several mazes one after the other,
+ * which MazeCorpus uses. The robot's heading, which the text format also stores, is not kept, and is EAST when converting back.
+ *
+ * Usage: java MazeFile toBinary maze.txt maze.mzb
+ *        java MazeFile toText maze.mzb maze.txt
+ */
+/**
+ * This is the reader and writer for the binary maze format
+ *
+ * @author Param Bhatia
+ * @since 18-10-2026
+ */
+public class MazeFile {
+    public static final int MAGIC = 0x31425A4D;     /*"MZB1" read as a little-endian int*/
+    public static final int HEADER_BYTES = 32;
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    private MazeFile() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 3 || !(args[0].equals("toBinary") || args[0].equals("toText"))) {
+            System.out.println("Usage: java MazeFile toBinary maze.txt maze.mzb | toText maze.mzb maze.txt");
+            System.exit(1);
+        }
+        long startTime = System.nanoTime();
+        if (args[0].equals("toBinary")) {
+            write(new Maze(new File(args[1]), new HeadlessRobot()), new File(args[2]));
+        }
+        else {
+            load(new File(args[1])).writeToFile(new File(args[2]), new HeadlessRobot());
+        }
+        System.out.printf("%s written in %.1f ms%n", args[2], (System.nanoTime() - startTime) / 1e6);
+    }
+
+    /**
+     * write saves one maze to a new file, packing it first if it is not already a PackedMaze
+     *
+     * @param maze      Maze to save
+     * @param file      File which will be created or replaced
+     */
+    public static void write(Maze maze, File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            write(maze, channel);
+        }
+    }
+
+    /**
+     * write streams one maze to the end of a channel, so that several mazes can be written to one file
+     *
+     * @param maze      Maze to save
+     * @param channel   Channel to write to
+     */
+    public static void write(Maze maze, WritableByteChannel channel) throws IOException {
+        PackedMaze packed = PackedMaze.copyOf(maze);
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(packed.getWidth()).putInt(packed.getHeight());
+        buffer.putInt(packed.getStart().x).putInt(packed.getStart().y);
+        buffer.putInt(packed.getFinish().x).putInt(packed.getFinish().y);
+        buffer.putInt(packed.wordCount());
+        for (int word = 0; word < packed.wordCount(); word++) {
+            if (!buffer.hasRemaining()) drain(buffer, channel);
+            buffer.putLong(packed.getWalls(word));
+        }
+        drain(buffer, channel);
+    }
+
+    private static void drain(ByteBuffer buffer, WritableByteChannel channel) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * load maps a file and reads the first maze in it
+     *
+     * @param file      File written by write
+     * @return          The maze
+     */
+    public static PackedMaze load(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * read reads the maze at the position of the buffer, and moves the position to the end of it
+     *
+     * @param buffer    Buffer over a file written by write, e.g. a MappedByteBuffer
+     * @return          The maze
+     */
+    public static PackedMaze read(ByteBuffer buffer) throws IOException {
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a binary maze at position " + buffer.position());
+        }
+        PackedMaze maze = new PackedMaze(buffer.getInt(), buffer.getInt());
+        maze.setStart(buffer.getInt(), buffer.getInt());
+        maze.setFinish(buffer.getInt(), buffer.getInt());
+        int words = buffer.getInt();
+        if (words != maze.wordCount() || buffer.remaining() < 8L * words) {
+            throw new IOException("Binary maze of " + maze.getWidth() + "x" + maze.getHeight() + " is truncated or corrupt");
+        }
+        LongBuffer walls = buffer.asLongBuffer();
+        walls.limit(words);
+        maze.setWalls(walls);
+        buffer.position(buffer.position() + 8 * words);
+        return maze;
+    }
+
+    /**
+     * map maps a whole file read-only, for reading many mazes with read
+     */
+    public static MappedByteBuffer map(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /**
+     * size is the number of bytes a maze of this width and height takes in a file
+     */
+    public static long size(int width, int height) {
+        return HEADER_BYTES + 8L * (((long) (width + 2) * (height + 2) + 63) >>> 6);
+    }
+}
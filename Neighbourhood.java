@@ -0,0 +1,101 @@
+import uk.ac.warwick.dcs.maze.logic.IRobot;
+import java.util.SplittableRandom;
+/**
+ * Neighbourhood is a snapshot of the four squares around the robot, taken once per poll
+ * Each of the controllers used to call robot.look up to four times in every one of nonwallExits, passageExits,
+ * beenBeforeExits, deadEnd, corridor and junctionAndCrossroads, which came to 10-13 looks per poll.
+ * scan looks in each direction exactly once, and every decision method then reads the stored results.
+ *
+ * The results are stored as one bit per relative direction (bit 0 = AHEAD, 1 = RIGHT, 2 = BEHIND, 3 = LEFT),
+ * in one mask each for walls, passages and beenBefore squares.
+ * The counts do not change when the robot turns, but look(direction) is always relative to the heading at the time of the scan.
+ *
+ * @author Param Bhatia
+ * @since 18-10-2026
+ */
+public class Neighbourhood {
+    public static final int LOOKS = 4;      /*Calls to look made by every scan*/
+    private int wallMask;
+    private int passageMask;
+    private int beenBeforeMask;
+
+    /**
+     * scan looks in all four directions once and stores the results
+     *
+     * @param robot     Object of the IRobot class
+     */
+    public void scan(IRobot robot) {
+        wallMask = 0;
+        passageMask = 0;
+        beenBeforeMask = 0;
+        for (int bit = 0; bit < LOOKS; bit++) {
+            int square = robot.look(IRobot.AHEAD + bit);
+            if (square == IRobot.WALL) wallMask |= 1 << bit;
+            else if (square == IRobot.PASSAGE) passageMask |= 1 << bit;
+            else beenBeforeMask |= 1 << bit;
+        }
+    }
+
+    /**
+     * look returns what was in the given direction when the robot last scanned
+     *
+     * @param direction     IRobot.AHEAD, RIGHT, BEHIND or LEFT
+     * @return              IRobot.WALL, PASSAGE or BEENBEFORE
+     */
+    public int look(int direction) {
+        int bit = 1 << (direction - IRobot.AHEAD);
+        if ((wallMask & bit) != 0) return IRobot.WALL;
+        if ((passageMask & bit) != 0) return IRobot.PASSAGE;
+        return IRobot.BEENBEFORE;
+    }
+
+    public int nonwallExits() {
+        return 4 - Integer.bitCount(wallMask);
+    }
+
+    public int passageExits() {
+        return Integer.bitCount(passageMask);
+    }
+
+    public int beenBeforeExits() {
+        return Integer.bitCount(beenBeforeMask);
+    }
+
+    /**
+     * @return      One bit per relative direction which is not a wall
+     */
+    public int nonwallMask() {
+        return ~wallMask & 0xF;
+    }
+
+    /**
+     * @return      One bit per relative direction which is a passage
+     */
+    public int passageMask() {
+        return passageMask;
+    }
+
+    /**
+     * @return      One bit per relative direction which is a beenBefore square
+     */
+    public int beenBeforeMask() {
+        return beenBeforeMask;
+    }
+
+    /**
+     * randomExit chooses one of the directions in the given mask at random, without creating any objects
+     * A random number k is chosen between 0 and (number of exits - 1), then the lowest k set bits are cleared
+     * so that the lowest remaining bit is the k-th exit.
+     *
+     * @param mask      One bit per relative direction which can be chosen, at least one bit must be set
+     * @param random    Random number generator owned by the controller
+     * @return          IRobot.AHEAD, RIGHT, BEHIND or LEFT
+     */
+    public static int randomExit(int mask, SplittableRandom random) {
+        int exits = Integer.bitCount(mask);
+        for (int k = exits > 1 ? random.nextInt(exits) : 0; k > 0; k--) {
+            mask &= mask - 1;
+        }
+        return IRobot.AHEAD + Integer.numberOfTrailingZeros(mask);
+    }
+}
@@ -0,0 +1,231 @@
+import uk.ac.warwick.dcs.maze.logic.IRobot;
+import uk.ac.warwick.dcs.maze.logic.Maze;
+import java.awt.Point;
+import java.io.File;
+/*
+ * PackedMaze Preamble:
+ * Maze stores its grid as int[width][height], 32 bits per square for what is only ever WALL or PASSAGE,
+ * so a 4096x4096 maze takes 64MB before the robot has even started. PackedMaze keeps one bit per square in a long[],
+ * row by row, which is 2MB for the same maze.
+ *
+ * The rows are padded with a wall on every side (so a row is width + 2 bits long), which means the four squares around
+ * any square in the maze are always at index - stride, index + 1, index + stride and index - 1, without any bounds checks.
+ * PackedRobot uses this to answer look() with a single index calculation.
+ *
+ * PackedMaze extends Maze so that it can be passed anywhere a Maze is expected, e.g. returned from robot.getMaze() to Ex1,
+ * GrandFinale or AStarController. Maze's own int grid is only created with a size of 1x1 and is never used.
+ *
+ * A maze which is shared between robots (FleetSimulation, SessionBenchmark) is frozen first. From then on every setter
+ * throws an UnsupportedOperationException, so no robot or controller can change the maze under the others.
+ */
+/**
+ * This is a Maze which stores its walls as a bitset
+ *
+ * @author Param Bhatia
+ * @since 18-10-2026
+ */
+public class PackedMaze extends Maze {
+    private final int width;
+    private final int height;
+    private final int stride;               /*Bits per row, including the padding on both sides*/
+    private final long[] walls;
+    private int startX;
+    private int startY;
+    private int finishX;
+    private int finishY;
+    private boolean frozen;                 /*Set before the maze is shared, so it never changes while it is read*/
+
+    /**
+     * The new maze is all walls, in the same way as new Maze(width, height)
+     *
+     * @param width     Width of the maze
+     * @param height    Height of the maze
+     */
+    public PackedMaze(int width, int height) {
+        super(1, 1);
+        this.width = width;
+        this.height = height;
+        this.stride = width + 2;
+        this.walls = new long[(int) (((long) stride * (height + 2) + 63) >>> 6)];
+        java.util.Arrays.fill(walls, -1L);
+    }
+
+    /**
+     * copyOf packs an existing maze, or returns it as it is if it is already packed
+     *
+     * @param maze      Maze to copy
+     * @return          PackedMaze with the same walls, start and finish
+     */
+    public static PackedMaze copyOf(Maze maze) {
+        if (maze instanceof PackedMaze) return (PackedMaze) maze;
+        PackedMaze packed = new PackedMaze(maze.getWidth(), maze.getHeight());
+        for (int y = 0; y < maze.getHeight(); y++) {
+            for (int x = 0; x < maze.getWidth(); x++) {
+                if (maze.getCellType(x, y) == Maze.PASSAGE) packed.clearWall(packed.index(x, y));
+            }
+        }
+        packed.setStart(maze.getStart().x, maze.getStart().y);
+        packed.setFinish(maze.getFinish().x, maze.getFinish().y);
+        return packed;
+    }
+
+    /**
+     * freeze makes the maze read-only, which it stays, before it is shared between robots
+     *
+     * @return          This maze
+     */
+    public PackedMaze freeze() {
+        frozen = true;
+        return this;
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    private void checkWritable() {
+        if (frozen) throw new UnsupportedOperationException("The maze is shared between robots, so it cannot be changed");
+    }
+
+    /**
+     * index is the bit number of the square (x, y)
+     */
+    public int index(int x, int y) {
+        return (y + 1) * stride + x + 1;
+    }
+
+    public int x(int index) {
+        return index % stride - 1;
+    }
+
+    public int y(int index) {
+        return index / stride - 1;
+    }
+
+    /**
+     * step is the change in index for one step in the given heading
+     *
+     * @param heading       IRobot.NORTH, EAST, SOUTH or WEST
+     * @return              Change in index
+     */
+    public int step(int heading) {
+        switch (heading) {
+            case IRobot.NORTH: return -stride;
+            case IRobot.EAST: return 1;
+            case IRobot.SOUTH: return stride;
+            default: return -1;
+        }
+    }
+
+    public boolean isWall(int index) {
+        return (walls[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * wordCount is the number of longs a bitset with one bit per index must have, e.g. for the squares a robot has been on
+     */
+    public int wordCount() {
+        return walls.length;
+    }
+
+    /**
+     * setWalls sets all 64 squares of one long of the bitset at once, bit b of 'bits' is index 64 * word + b
+     * Different longs can be set from different threads, e.g. by TiledMazeGenerator
+     *
+     * @param word      Number of the long, between 0 and wordCount() - 1
+     * @param bits      Set bits are walls
+     */
+    public void setWalls(int word, long bits) {
+        checkWritable();
+        walls[word] = bits;
+    }
+
+    /**
+     * getWalls is one long of the bitset, in the same layout as setWalls
+     */
+    public long getWalls(int word) {
+        return walls[word];
+    }
+
+    /**
+     * setWalls copies every long of the bitset out of a buffer, e.g. one over a memory-mapped MazeFile
+     *
+     * @param words     Buffer with exactly wordCount() longs remaining
+     */
+    public void setWalls(java.nio.LongBuffer words) {
+        checkWritable();
+        words.get(walls);
+    }
+
+    private void clearWall(int index) {
+        walls[index >>> 6] &= ~(1L << index);
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getCellType(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            throw new ArrayIndexOutOfBoundsException("(" + x + ", " + y + ") is outside the maze");
+        }
+        return isWall(index(x, y)) ? Maze.WALL : Maze.PASSAGE;
+    }
+
+    public int getCellType(Point point) {
+        return getCellType(point.x, point.y);
+    }
+
+    public void setCellType(int x, int y, int type) {
+        checkWritable();
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            throw new ArrayIndexOutOfBoundsException("(" + x + ", " + y + ") is outside the maze");
+        }
+        int index = index(x, y);
+        if (type == Maze.PASSAGE) clearWall(index);
+        else walls[index >>> 6] |= 1L << index;
+    }
+
+    public void toggleCellType(int x, int y) {
+        setCellType(x, y, getCellType(x, y) == Maze.WALL ? Maze.PASSAGE : Maze.WALL);
+    }
+
+    public Point getStart() {
+        return new Point(startX, startY);
+    }
+
+    public void setStart(int x, int y) {
+        checkWritable();
+        startX = x;
+        startY = y;
+    }
+
+    public Point getFinish() {
+        return new Point(finishX, finishY);
+    }
+
+    public void setFinish(int x, int y) {
+        checkWritable();
+        finishX = x;
+        finishY = y;
+    }
+
+    /**
+     * writeToFile unpacks the maze into a normal Maze first, since Maze writes its own private grid
+     */
+    public void writeToFile(File file, IRobot robot) throws Exception {
+        Maze maze = new Maze(width, height);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                if (!isWall(index(x, y))) maze.setCellType(x, y, Maze.PASSAGE);
+            }
+        }
+        maze.setStart(startX, startY);
+        maze.setFinish(finishX, finishY);
+        maze.writeToFile(file, robot);
+    }
+}
@@ -0,0 +1,192 @@
+import uk.ac.warwick.dcs.maze.logic.Event;
+import uk.ac.warwick.dcs.maze.logic.IEvent;
+import uk.ac.warwick.dcs.maze.logic.IRobot;
+import uk.ac.warwick.dcs.maze.logic.Maze;
+import java.awt.Point;
+import java.util.Arrays;
+/*
+ * PackedRobot Preamble:
+ * This follows exactly the same rules as HeadlessRobot, but on a PackedMaze. The robot's square is kept as the bit index
+ * into the maze, and the squares it has been on are a second bitset with the same layout as the walls,
+ * so look() is one index calculation and two bit tests, and a 4096x4096 maze and its beenBefore squares take about 4MB.
+ *
+ * A maze which is not already a PackedMaze is packed when it is set. The padding around a PackedMaze is wall,
+ * so advancing off the edge of the maze counts as a collision.
+ *
+ * A PackedMaze is never copied, so any number of robots can share one. A sparse robot keeps its beenBefore squares
+ * in a VisitOverlay instead of a bitset the size of the maze, so its memory grows with the squares it visits, not with the maze.
+ * This is slower per look, so it is only worth it for many robots on a maze which is large compared to what they explore.
+ */
+/**
+ * This is an IRobot which moves on a PackedMaze, for very large mazes
+ *
+ * @author Param Bhatia
+ * @since 18-10-2026
+ */
+public class PackedRobot implements SimulatedRobot {
+    private PackedMaze maze;
+    private long[] visited = new long[0];   /*Squares which the robot has been on during this run, same indexes as the maze*/
+    private final VisitOverlay overlay;     /*Used instead of visited if the robot is sparse, otherwise null*/
+    private final int[] steps = new int[4]; /*Change in index for each absolute direction, 0 is north*/
+    private int square;
+    private int target;
+    private int heading = IRobot.EAST;      /*Same starting heading as RobotImpl*/
+    private long stepCount;
+    private long collisions;
+    private long looks;
+    private int runs;
+    private SimulationEventBus bus;         /*null unless setEventBus is called*/
+
+    public PackedRobot() {
+        this(false);
+    }
+
+    /**
+     * @param sparse        true to keep the beenBefore squares in a VisitOverlay instead of a bitset the size of the maze
+     */
+    public PackedRobot(boolean sparse) {
+        overlay = sparse ? new VisitOverlay() : null;
+    }
+
+    public void setMaze(Maze maze) {
+        this.maze = PackedMaze.copyOf(maze);
+        if (overlay == null && visited.length != this.maze.wordCount()) visited = new long[this.maze.wordCount()];
+        for (int h = 0; h < 4; h++) {
+            steps[h] = this.maze.step(IRobot.NORTH + h);
+        }
+        target = this.maze.index(maze.getFinish().x, maze.getFinish().y);
+        runs = 0;
+        restart();
+    }
+
+    public void reset() {
+        runs++;
+        restart();
+        if (bus != null) bus.broadcast(new Event(IEvent.ROBOT_RESET, null));
+    }
+
+    private void restart() {
+        if (overlay == null) Arrays.fill(visited, 0L);
+        else overlay.clear();
+        Point start = maze.getStart();
+        square = maze.index(start.x, start.y);
+        visit(square);
+        stepCount = 0;
+        collisions = 0;
+        looks = 0;
+    }
+
+    public void advance() {
+        int next = square + steps[heading - IRobot.NORTH];
+        if (maze.isWall(next)) {
+            collisions++;
+            if (bus != null && bus.hasClients()) bus.broadcast(new Event(IEvent.ROBOT_COLLISION, getLocation()));
+            return;
+        }
+        square = next;
+        visit(square);
+        stepCount++;
+        if (bus != null) publishMove();
+    }
+
+    /**
+     * publishMove is kept out of advance, and only works out x and y if someone is listening
+     */
+    private void publishMove() {
+        if (!bus.hasClients()) return;
+        bus.location(maze.x(square), maze.y(square));
+        if (square == target) bus.broadcast(new Event(IEvent.ROBOT_FINISHED, getLocation()));
+    }
+
+    public void setEventBus(SimulationEventBus bus) {
+        this.bus = bus;
+    }
+
+    public boolean isAtTarget() {
+        return square == target;
+    }
+
+    public int look(int direction) {
+        if (direction < IRobot.AHEAD || direction > IRobot.LEFT) {
+            throw new RuntimeException("The robot can only look AHEAD, BEHIND, LEFT and RIGHT.");
+        }
+        looks++;
+        int index = square + steps[(direction - IRobot.AHEAD + heading - IRobot.NORTH) & 3];
+        if (isVisited(index)) return IRobot.BEENBEFORE;
+        return maze.isWall(index) ? IRobot.WALL : IRobot.PASSAGE;
+    }
+
+    private void visit(int index) {
+        if (overlay == null) visited[index >>> 6] |= 1L << index;
+        else overlay.add(index);
+    }
+
+    private boolean isVisited(int index) {
+        if (overlay == null) return (visited[index >>> 6] & (1L << index)) != 0;
+        return overlay.contains(index);
+    }
+
+    /**
+     * visitedBytes is the memory used by the robot's beenBefore squares
+     *
+     * @return      Size of the bitset, or of the overlay if the robot is sparse
+     */
+    public long visitedBytes() {
+        return overlay == null ? 8L * visited.length : overlay.bytes();
+    }
+
+    public void face(int direction) {
+        if (direction < IRobot.AHEAD || direction > IRobot.LEFT) {
+            throw new RuntimeException("The robot can only face AHEAD, BEHIND, LEFT and RIGHT.");
+        }
+        heading = (heading + direction - IRobot.AHEAD) % 4 + IRobot.NORTH;
+    }
+
+    public void setHeading(int heading) {
+        if (heading < IRobot.NORTH || heading > IRobot.WEST) {
+            throw new RuntimeException("The robot's heading can only be NORTH, SOUTH, EAST or WEST.");
+        }
+        this.heading = heading;
+    }
+
+    public int getHeading() {
+        return heading;
+    }
+
+    public Point getLocation() {
+        return new Point(maze.x(square), maze.y(square));
+    }
+
+    public Point getTargetLocation() {
+        return new Point(maze.x(target), maze.y(target));
+    }
+
+    public Maze getMaze() {
+        return maze;
+    }
+
+    public int getRuns() {
+        return runs;
+    }
+
+    public void sleep(int millis) {
+        try {
+            Thread.sleep(millis);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public long getSteps() {
+        return stepCount;
+    }
+
+    public long getCollisions() {
+        return collisions;
+    }
+
+    public long getLooks() {
+        return looks;
+    }
+}
@@ -0,0 +1,23 @@
+import uk.ac.warwick.dcs.maze.logic.IRobot;
+/**
+ * PolledController is the typed version of the controlRobot/reset pair which the maze environment finds by reflection
+ * Controllers which implement it can be polled with a plain interface call by the DirectPolledControllerWrapper,
+ * BatchRunner and the benchmarks, while still being loadable by the GUI as before.
+ *
+ * @author Param Bhatia
+ * @since 18-10-2026
+ */
+public interface PolledController {
+
+    /**
+     * controlRobot is called once per step, and must face the robot in the direction it should move
+     *
+     * @param robot     Object of the IRobot class
+     */
+    void controlRobot(IRobot robot);
+
+    /**
+     * reset is called when the robot reaches the target, or when the maze is reset
+     */
+    void reset();
+}
@@ -0,0 +1,80 @@
+import uk.ac.warwick.dcs.maze.controllers.PolledControllerWrapper;
+import uk.ac.warwick.dcs.maze.logic.EventBus;
+import uk.ac.warwick.dcs.maze.logic.IMazeGenerator;
+import uk.ac.warwick.dcs.maze.logic.IRobot;
+import uk.ac.warwick.dcs.maze.logic.IRobotController;
+import uk.ac.warwick.dcs.maze.logic.Maze;
+import uk.ac.warwick.dcs.maze.logic.RobotImpl;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+/*
+ * PollingBenchmark Preamble:
+ * This compares the step rate of the reflective PolledControllerWrapper from maze-environment.jar
+ * with the DirectPolledControllerWrapper, on exactly the same mazes and with a delay of zero.
+ *
+ * reflective        PolledControllerWrapper + RobotImpl (what the GUI does)
+ * direct            DirectPolledControllerWrapper + RobotImpl
+ * direct-headless   DirectPolledControllerWrapper + HeadlessRobot, i.e. no EventBus either
+ *
+ * Usage: java PollingBenchmark [Controller] [mazes] [size] [rounds]
+ * e.g.   java -cp maze-environment.jar:. PollingBenchmark Ex3 50 201 5
+ */
+/**
+ * This is the benchmark for the polling loop, it prints the steps per second of each mode for every round
+ *
+ * @author Param Bhatia
+ * @since 18-10-2026
+ */
+public class PollingBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        Class<?> controllerClass = Class.forName(args.length > 0 ? args[0] : "Ex3");
+        int mazeCount = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        int size = args.length > 2 ? Integer.parseInt(args[2]) : 201;
+        int rounds = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+
+        IMazeGenerator generator = MazeFactory.generator(false, size);
+        Maze[] mazes = new Maze[mazeCount];
+        for (int i = 0; i < mazeCount; i++) {
+            mazes[i] = generator.generateMaze();
+        }
+
+        /*RobotImpl only moves when it hears its own ROBOT_RELOCATE events, so it has to be on the EventBus*/
+        RobotImpl robotImpl = new RobotImpl();
+        EventBus.addClient(robotImpl);
+        HeadlessRobot headless = new HeadlessRobot();
+
+        for (int round = 1; round <= rounds; round++) {
+            Object controller = controllerClass.getDeclaredConstructor().newInstance();
+            double reflective = stepsPerSecond(new PolledControllerWrapper(controller), robotImpl,
+                    robotImpl::setMaze, robotImpl::getSteps, mazes);
+            double direct = stepsPerSecond(new DirectPolledControllerWrapper(controller), robotImpl,
+                    robotImpl::setMaze, robotImpl::getSteps, mazes);
+            double directHeadless = stepsPerSecond(new DirectPolledControllerWrapper(controller), headless,
+                    headless::setMaze, headless::getSteps, mazes);
+            System.out.println("round " + round + ": reflective=" + String.format("%.0f", reflective)
+                    + " direct=" + String.format("%.0f", direct)
+                    + " direct-headless=" + String.format("%.0f", directHeadless) + " steps/s");
+        }
+        System.exit(0);
+    }
+
+    /**
+     * stepsPerSecond runs one solve of every maze through the given wrapper
+     * RobotImpl does not clear its step counter when a new maze is set, so the steps are counted as a difference
+     */
+    private static double stepsPerSecond(IRobotController wrapper, IRobot robot, Consumer<Maze> setMaze,
+                                         LongSupplier stepCounter, Maze[] mazes) {
+        wrapper.setDelay(0);
+        wrapper.setRobot(robot);
+        long steps = 0;
+        long startTime = System.nanoTime();
+        for (Maze maze : mazes) {
+            setMaze.accept(maze);
+            long before = stepCounter.getAsLong();
+            wrapper.start();
+            steps += stepCounter.getAsLong() - before;
+        }
+        return steps / ((System.nanoTime() - startTime) / 1e9);
+    }
+}
@@ -0,0 +1,202 @@
+import uk.ac.warwick.dcs.maze.logic.IRobot;
+import uk.ac.warwick.dcs.maze.logic.Maze;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+/*
+ * RouteCache Preamble:
+ * GrandFinale learns the shortest route through a maze on its first run, but that route was lost whenever the JVM stopped,
+ * so every new process had to explore the same maze again. RouteCache keeps learned routes in one small binary file,
+ * so that a maze which has been solved before is followed straight to the target on its first run.
+ *
+ * The cache is only used when the maze.routeCache system property is set to the file, e.g. -Dmaze.routeCache=routes.bin
+ * and holds at most maze.routeCache.entries routes (256 by default). When it is full, the route which was used least recently
+ * is dropped.
+ *
+ * File layout (big-endian):
+ *   int   magic "RTC1"
+ *   int   number of routes
+ *   long  clock, incremented every time a route is used
+ *   then for each route:
+ *     long  key, from key(maze)
+ *     long  clock value when the route was last used
+ *     int   number of headings
+ *     long  headings, 2 bits each in the same layout as HeadingStack, (headings + 31) / 32 of them
+ *
+ * The file is memory-mapped to look a route up, and the last-used clock of a route is written straight into the mapping.
+ * Storing a route writes a new file next to the old one and moves it over the top, so a reader never sees half a file.
+ */
+/**
+ * This is the persistent cache of GrandFinale's learned routes, keyed by a hash of the maze
+ *
+ * @author Param Bhatia
+ * @since 18-10-2026
+ */
+public class RouteCache {
+    public static final String FILE_PROPERTY = "maze.routeCache";
+    public static final String ENTRIES_PROPERTY = "maze.routeCache.entries";
+    private static final int MAGIC = 0x52544331;
+    private static final int HEADER_BYTES = 16;
+    private static final int RECORD_HEADER_BYTES = 20;
+
+    private static final Path FILE = System.getProperty(FILE_PROPERTY) == null ? null : Paths.get(System.getProperty(FILE_PROPERTY));
+    private static final int MAX_ENTRIES = Integer.getInteger(ENTRIES_PROPERTY, 256);
+
+    private RouteCache() {
+    }
+
+    /**
+     * @return      true if the maze.routeCache property was set when the JVM started
+     */
+    public static boolean isEnabled() {
+        return FILE != null;
+    }
+
+    /**
+     * key hashes the layout of a maze: its size, start, finish, and whether each square is a wall
+     * The squares are packed 64 to a long and each long is mixed into the hash, so the key is the same in every JVM
+     *
+     * @param maze      Maze to hash
+     * @return          64-bit key of the maze
+     */
+    public static long key(Maze maze) {
+        long hash = mix(((long) maze.getWidth() << 32) | maze.getHeight());
+        hash = mix(hash ^ (((long) maze.getStart().x << 48) | ((long) maze.getStart().y << 32)
+                | ((long) maze.getFinish().x << 16) | maze.getFinish().y));
+        long word = 0;
+        int bits = 0;
+        for (int y = 0; y < maze.getHeight(); y++) {
+            for (int x = 0; x < maze.getWidth(); x++) {
+                if (maze.getCellType(x, y) == Maze.WALL) word |= 1L << bits;
+                if (++bits == 64) {
+                    hash = mix(hash ^ word);
+                    word = 0;
+                    bits = 0;
+                }
+            }
+        }
+        return mix(hash ^ word);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * lookup copies the route for the maze into the given stack, and marks it as just used
+     *
+     * @param key       Key of the maze, from key(maze)
+     * @param route     Cleared, then filled with the route if there is one
+     * @return          true if a route was found
+     */
+    public static synchronized boolean lookup(long key, HeadingStack route) {
+        route.clear();
+        if (FILE == null || !Files.exists(FILE)) return false;
+        try (FileChannel channel = FileChannel.open(FILE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC) return false;
+            int entries = buffer.getInt(4);
+            int position = HEADER_BYTES;
+            for (int i = 0; i < entries; i++) {
+                int headings = buffer.getInt(position + 16);
+                if (buffer.getLong(position) == key) {
+                    long clock = buffer.getLong(8) + 1;
+                    buffer.putLong(8, clock);
+                    buffer.putLong(position + 8, clock);
+                    for (int h = 0; h < headings; h++) {
+                        long word = buffer.getLong(position + RECORD_HEADER_BYTES + (h >>> 5) * 8);
+                        route.push(((int) (word >>> ((h & 31) * 2)) & 3) + IRobot.NORTH);
+                    }
+                    return true;
+                }
+                position += recordBytes(headings);
+            }
+        }
+        catch (IOException | RuntimeException e) {
+            /*A missing or damaged cache only means the maze is explored again*/
+            route.clear();
+        }
+        return false;
+    }
+
+    /**
+     * store saves the route for the maze, replacing any route it already had
+     * If the cache is then over its size, the least recently used routes are dropped
+     *
+     * @param key       Key of the maze, from key(maze)
+     * @param route     Headings from the start to the target, as filled in by JunctionGraph.shortestRoute
+     */
+    public static synchronized void store(long key, HeadingStack route) {
+        if (FILE == null) return;
+        try {
+            ByteBuffer old = ByteBuffer.allocate(0);
+            if (Files.exists(FILE)) {
+                try (FileChannel channel = FileChannel.open(FILE, StandardOpenOption.READ)) {
+                    old = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                }
+            }
+            boolean valid = old.limit() >= HEADER_BYTES && old.getInt(0) == MAGIC;
+            int entries = valid ? old.getInt(4) : 0;
+            long clock = (valid ? old.getLong(8) : 0) + 1;
+
+            /*Find the start of every route to keep, then drop the least recently used until there is room for the new one*/
+            int[] positions = new int[entries];
+            int kept = 0;
+            int position = HEADER_BYTES;
+            for (int i = 0; i < entries; i++) {
+                if (old.getLong(position) != key) positions[kept++] = position;
+                position += recordBytes(old.getInt(position + 16));
+            }
+            while (kept > 0 && kept >= MAX_ENTRIES) {
+                int oldest = 0;
+                for (int i = 1; i < kept; i++) {
+                    if (old.getLong(positions[i] + 8) < old.getLong(positions[oldest] + 8)) oldest = i;
+                }
+                positions[oldest] = positions[--kept];
+            }
+
+            int size = HEADER_BYTES + recordBytes(route.size());
+            for (int i = 0; i < kept; i++) size += recordBytes(old.getInt(positions[i] + 16));
+            ByteBuffer buffer = ByteBuffer.allocate(size);
+            buffer.putInt(MAGIC).putInt(kept + 1).putLong(clock);
+            for (int i = 0; i < kept; i++) {
+                ByteBuffer record = old.duplicate();
+                record.position(positions[i]).limit(positions[i] + recordBytes(old.getInt(positions[i] + 16)));
+                buffer.put(record);
+            }
+            buffer.putLong(key).putLong(clock).putInt(route.size());
+            long word = 0;
+            for (int h = 0; h < route.size(); h++) {
+                word |= (long) (route.elementAt(h) - IRobot.NORTH) << ((h & 31) * 2);
+                if ((h & 31) == 31) {
+                    buffer.putLong(word);
+                    word = 0;
+                }
+            }
+            if ((route.size() & 31) != 0) buffer.putLong(word);
+            buffer.flip();
+
+            Path temporary = FILE.resolveSibling(FILE.getFileName() + ".tmp");
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (buffer.hasRemaining()) channel.write(buffer);
+            }
+            Files.move(temporary, FILE, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (IOException | RuntimeException e) {
+            System.err.println("Could not save the route to " + FILE + ": " + e);
+        }
+    }
+
+    private static int recordBytes(int headings) {
+        return RECORD_HEADER_BYTES + ((headings + 31) / 32) * 8;
+    }
+}
@@ -0,0 +1,17 @@
+import uk.ac.warwick.dcs.maze.logic.IMazeGenerator;
+/**
+ * SeededGenerator is an IMazeGenerator where the same seed always gives the same maze
+ * BatchRunner -seed and SeededReplay set the seed of each maze before generating it
+ *
+ * @author Param Bhatia
+ * @since 18-10-2026
+ */
+public interface SeededGenerator extends IMazeGenerator {
+
+    /**
+     * setSeed restarts the random numbers, so that the next generateMaze gives the maze for this seed
+     *
+     * @param seed      Seed of the next maze
+     */
+    void setSeed(long seed);
+}
@@ -0,0 +1,78 @@
+import uk.ac.warwick.dcs.maze.logic.Maze;
+/**
+ * This is the LoopyGenerator from maze-environment.jar with a seed
+ * A seeded Prim's maze is generated first, then walls are knocked down at random to make loops,
+ * as long as that does not leave a 2x2 block of open squares or a square with fewer than 2 walls around it.
+ * Finally the target is moved to the nearest open square to the centre.
+ *
+ * @author Param Bhatia
+ * @since 18-10-2026
+ */
+public class SeededLoopyGenerator extends SeededPrimGenerator {
+
+    public SeededLoopyGenerator(int size, long seed) {
+        super(size, seed);
+    }
+
+    public Maze generateMaze() {
+        Maze maze = super.generateMaze();
+        for (int x = 1; x < maze.getWidth() - 1; x++) {
+            for (int y = 1; y < maze.getHeight() - 1; y++) {
+                if (isValid(maze, x, y) && getWalls(maze, x, y) < 3 && random.nextDouble() > 0.5) {
+                    maze.setCellType(x, y, Maze.PASSAGE);
+                }
+            }
+        }
+        centerTarget(maze);
+        return maze;
+    }
+
+    /**
+     * isValid checks that opening the square at (x, y) would not leave any 2x2 block without a wall
+     */
+    private boolean isValid(Maze maze, int x, int y) {
+        for (int i = x - 1; i <= x; i++) {
+            for (int j = y - 1; j <= y; j++) {
+                boolean open = true;
+                for (int a = i; a <= i + 1; a++) {
+                    for (int b = j; b <= j + 1; b++) {
+                        if (maze.getCellType(a, b) == Maze.WALL && (a != x || b != y)) open = false;
+                    }
+                }
+                if (open) return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * getWalls counts the walls directly to the north, east, south and west of (x, y)
+     */
+    private int getWalls(Maze maze, int x, int y) {
+        int walls = 0;
+        for (int a = x - 1; a <= x + 1; a += 2) {
+            if (maze.getCellType(a, y) == Maze.WALL) walls++;
+        }
+        for (int b = y - 1; b <= y + 1; b += 2) {
+            if (maze.getCellType(x, b) == Maze.WALL) walls++;
+        }
+        return walls;
+    }
+
+    /**
+     * centerTarget moves the finish to the centre, or the first open square found by walking randomly right or down from it
+     */
+    private void centerTarget(Maze maze) {
+        int x = maze.getWidth() / 2;
+        int y = maze.getHeight() / 2;
+        while (maze.getCellType(x, y) != Maze.PASSAGE) {
+            if (random.nextDouble() > 0.5) x = (x + 1) % maze.getWidth();
+            else y = (y + 1) % maze.getHeight();
+        }
+        maze.setFinish(x, y);
+    }
+
+    public String getDescription() {
+        return "Seeded Loopy Maze Generator";
+    }
+}
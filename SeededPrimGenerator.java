@@ -0,0 +1,133 @@
+import uk.ac.warwick.dcs.maze.logic.Maze;
+import java.awt.Point;
+import java.util.LinkedList;
+import java.util.Random;
+import javax.swing.JPanel;
+/*
+ * SeededPrimGenerator Preamble:
+ * The PrimGenerator in maze-environment.jar chooses every frontier square and every wall to knock down with Math.random(),
+ * so a maze which made a controller slow can never be generated again.
+ * This is the same Prim's algorithm, making exactly the same choices in the same order, but every random number comes
+ * from a java.util.Random which is seeded with setSeed, so the same seed always gives the same maze.
+ *
+ * The size is the width/height of the whole grid, in the same way as MazeFactory.generator.
+ */
+/**
+ * This is a Prim's algorithm maze generator with a seed
+ *
+ * @author Param Bhatia
+ * @since 18-10-2026
+ */
+public class SeededPrimGenerator implements SeededGenerator {
+    private static final int IN = 1;            /*Square is part of the maze*/
+    private static final int FRONTIER = 2;      /*Square is next to the maze, and can be added to it*/
+    private static final int OUT = 3;
+    private static final int NORTH = 10;
+    private static final int EAST = 11;
+    private static final int SOUTH = 12;
+    private static final int WEST = 13;
+
+    private final int mazeWidth;                /*Number of cells across, not including the walls between them*/
+    private final int mazeHeight;
+    protected final Random random;
+    private int[][] primGrid;
+    private LinkedList<Point> frontierList = new LinkedList<Point>();
+
+    /**
+     * @param size      Width and height of the generated maze grid
+     * @param seed      Seed of the first maze, see setSeed
+     */
+    public SeededPrimGenerator(int size, long seed) {
+        mazeWidth = Math.max(1, (size - 1) / 2);
+        mazeHeight = mazeWidth;
+        random = new Random(seed);
+    }
+
+    /**
+     * setSeed restarts the random numbers, so that the next generateMaze gives the maze for this seed
+     *
+     * @param seed      Seed of the next maze
+     */
+    public void setSeed(long seed) {
+        random.setSeed(seed);
+    }
+
+    public Maze generateMaze() {
+        int width = 2 * mazeWidth + 1;
+        int height = 2 * mazeHeight + 1;
+        Maze maze = new Maze(width, height);
+        maze.setStart(1, 1);
+        maze.setFinish(width - 2, height - 2);
+
+        primGrid = new int[width][height];
+        for (int i = 0; i < width; i++) {
+            for (int j = 0; j < height; j++) {
+                primGrid[i][j] = OUT;
+            }
+        }
+        frontierList.clear();
+
+        /*The maze is grown from the finish square*/
+        int x = width - 2;
+        int y = height - 2;
+        setPrimCellType(maze, x, y, IN);
+        if (x > 1) setPrimCellType(maze, x - 2, y, FRONTIER);
+        if (y > 1) setPrimCellType(maze, x, y - 2, FRONTIER);
+        if (x < primGrid.length - 2) setPrimCellType(maze, x + 2, y, FRONTIER);
+        if (y < primGrid[0].length - 2) setPrimCellType(maze, x, y + 2, FRONTIER);
+
+        int[] directions = new int[4];
+        while (frontierList.size() > 0) {
+
+            /*Add a random frontier square to the maze, and its neighbours which are still out to the frontier*/
+            Point square = frontierList.get(randomInt(frontierList.size()));
+            setPrimCellType(maze, square.x, square.y, IN);
+            if (square.x > 1 && primGrid[square.x - 2][square.y] == OUT) setPrimCellType(maze, square.x - 2, square.y, FRONTIER);
+            if (square.y > 1 && primGrid[square.x][square.y - 2] == OUT) setPrimCellType(maze, square.x, square.y - 2, FRONTIER);
+            if (square.x < primGrid.length - 2 && primGrid[square.x + 2][square.y] == OUT) setPrimCellType(maze, square.x + 2, square.y, FRONTIER);
+            if (square.y < primGrid[0].length - 2 && primGrid[square.x][square.y + 2] == OUT) setPrimCellType(maze, square.x, square.y + 2, FRONTIER);
+
+            /*Knock down the wall to one random neighbour which is already in the maze*/
+            int count = 0;
+            if (square.x - 2 > 0 && primGrid[square.x - 2][square.y] == IN) directions[count++] = WEST;
+            if (square.y - 2 > 0 && primGrid[square.x][square.y - 2] == IN) directions[count++] = NORTH;
+            if (square.x < primGrid.length - 2 && primGrid[square.x + 2][square.y] == IN) directions[count++] = EAST;
+            if (square.y < primGrid[0].length - 2 && primGrid[square.x][square.y + 2] == IN) directions[count++] = SOUTH;
+            switch (directions[randomInt(count)]) {
+                case NORTH: setPrimCellType(maze, square.x, square.y - 1, IN); break;
+                case EAST: setPrimCellType(maze, square.x + 1, square.y, IN); break;
+                case SOUTH: setPrimCellType(maze, square.x, square.y + 1, IN); break;
+                case WEST: setPrimCellType(maze, square.x - 1, square.y, IN); break;
+            }
+            frontierList.remove(square);
+        }
+        return maze;
+    }
+
+    /**
+     * randomInt is the same as PrimGenerator.randomInt, apart from where the random number comes from
+     *
+     * @param range     The number of possible randomly generated integers
+     * @return          random integer between 0 and ('range' - 1)
+     */
+    protected int randomInt(int range) {
+        return (int) Math.floor(range * random.nextDouble());
+    }
+
+    private void setPrimCellType(Maze maze, int x, int y, int type) {
+        if (type == IN) maze.setCellType(x, y, Maze.PASSAGE);
+        if (type == FRONTIER) frontierList.add(new Point(x, y));
+        primGrid[x][y] = type;
+    }
+
+    /**
+     * There is no configuration panel, the size and seed are given to the constructor instead
+     */
+    public JPanel getConfigurator() {
+        return null;
+    }
+
+    public String getDescription() {
+        return "Seeded Prim's Algorithm";
+    }
+}
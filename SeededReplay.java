@@ -0,0 +1,95 @@
+import uk.ac.warwick.dcs.maze.logic.IRobot;
+import uk.ac.warwick.dcs.maze.logic.Maze;
+import java.awt.Point;
+import java.util.zip.CRC32;
+/*
+ * SeededReplay Preamble:
+ * This checks that a seed really does reproduce a run. The maze is generated twice from the seed by two different
+ * generators, and solved twice by two different controllers created with the seed. After every step the robot's
+ * location and heading are added to a CRC32, so the two step traces have to match bit for bit to give the same hash.
+ *
+ * A seed printed by a slow or failing run can be passed back in here to watch the same run again.
+ *
+ * Usage: java SeededReplay [Controller] [seed] [size] [runs] [-loopy]
+ * e.g.   java -cp maze-environment.jar:. SeededReplay GrandFinale 42 201 2 -loopy
+ */
+/**
+ * This is the replay check for seeded mazes and controllers, it exits with status 1 if the two replays differ
+ *
+ * @author Param Bhatia
+ * @since 18-10-2026
+ */
+public class SeededReplay {
+
+    public static void main(String[] args) throws Exception {
+        Class<?> controllerClass = Class.forName(args.length > 0 ? args[0] : "Ex3");
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 1L;
+        int size = args.length > 2 ? Integer.parseInt(args[2]) : 101;
+        int runs = args.length > 3 ? Integer.parseInt(args[3]) : 2;
+        boolean loopy = args.length > 4 && args[4].equals("-loopy");
+
+        Maze first = MazeFactory.generator(loopy, size, seed).generateMaze();
+        Maze second = MazeFactory.generator(loopy, size, seed).generateMaze();
+        boolean sameMaze = sameMaze(first, second);
+
+        long[] firstTrace = replay(controllerClass, seed, first, runs);
+        long[] secondTrace = replay(controllerClass, seed, second, runs);
+        boolean sameTrace = true;
+        for (int run = 0; run < runs; run++) {
+            System.out.println("run " + (run + 1) + ": steps=" + firstTrace[2 * run]
+                    + " trace=" + Long.toHexString(firstTrace[2 * run + 1]) + " / " + Long.toHexString(secondTrace[2 * run + 1]));
+            if (firstTrace[2 * run] != secondTrace[2 * run] || firstTrace[2 * run + 1] != secondTrace[2 * run + 1]) sameTrace = false;
+        }
+        System.out.println("maze " + (sameMaze ? "identical" : "DIFFERENT") + ", trace " + (sameTrace ? "identical" : "DIFFERENT"));
+        System.exit(sameMaze && sameTrace ? 0 : 1);
+    }
+
+    private static boolean sameMaze(Maze first, Maze second) {
+        if (first.getWidth() != second.getWidth() || first.getHeight() != second.getHeight()
+                || !first.getStart().equals(second.getStart()) || !first.getFinish().equals(second.getFinish())) {
+            return false;
+        }
+        for (int x = 0; x < first.getWidth(); x++) {
+            for (int y = 0; y < first.getHeight(); y++) {
+                if (first.getCellType(x, y) != second.getCellType(x, y)) return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * replay solves the maze 'runs' times with a new seeded controller, in the same way as BatchRunner
+     *
+     * @return          Steps and trace hash of each run, one after the other
+     */
+    private static long[] replay(Class<?> controllerClass, long seed, Maze maze, int runs) throws Exception {
+        PolledController controller = BatchRunner.newController(controllerClass, seed);
+        HeadlessRobot robot = new HeadlessRobot();
+        robot.setMaze(maze);
+        long[] result = new long[2 * runs];
+        for (int run = 0; run < runs; run++) {
+            if (run > 0) robot.reset();
+            CRC32 trace = new CRC32();
+            try {
+                while (!robot.isAtTarget()) {
+                    controller.controlRobot(robot);
+                    robot.advance();
+                    Point location = robot.getLocation();
+                    trace.update(location.x);
+                    trace.update(location.x >>> 8);
+                    trace.update(location.y);
+                    trace.update(location.y >>> 8);
+                    trace.update(robot.getHeading() - IRobot.NORTH);
+                }
+            }
+            catch (RuntimeException e) {
+                /*A run which throws is still a trace, it has to throw at the same step both times*/
+                trace.update(0xFF);
+            }
+            controller.reset();
+            result[2 * run] = robot.getSteps();
+            result[2 * run + 1] = trace.getValue();
+        }
+        return result;
+    }
+}
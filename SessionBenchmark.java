@@ -0,0 +1,121 @@
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+/*
+ * SessionBenchmark Preamble:
+ * This measures what one robot session costs while it is running, in each of SessionScheduler's modes.
+ * Every session is a controller of its own with a PackedRobot of its own, all on one shared frozen maze, polled every -delay ms
+ * like the GUI does. Once all of the sessions have been started and have run for a while, the heap is measured
+ * after a GC, together with the resident set size of the whole process (which includes the native stacks of platform threads,
+ * unlike the heap) and the number of live threads. The sessions are then cancelled through reset.
+ * With -sparse, the robots keep their beenBefore squares in a VisitOverlay, which matters once the maze is large.
+ *
+ * heap/session     heap used after a GC, divided by the number of sessions
+ * rss/session      growth of the process's resident memory, divided by the number of sessions (Linux only)
+ * polls/s          polls actually made while measuring, which is below sessions * 1000 / delay if the scheduler cannot keep up
+ *
+ * Usage: java SessionBenchmark [-sessions N] [-size N] [-delay ms] [-seconds N] [-mode THREAD|VIRTUAL|SCHEDULED] [-sparse] [Controller]
+ * e.g.   java -cp maze-environment.jar:. SessionBenchmark -sessions 100000 -mode SCHEDULED Ex3
+ */
+/**
+ * This is the benchmark of the memory used by each running robot session
+ *
+ * @author Param Bhatia
+ * @since 18-10-2026
+ */
+public class SessionBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty(JunctionLog.LEVEL_PROPERTY, "OFF");     /*Ex1 would print every junction of every session*/
+        int sessions = 10000;
+        int size = 51;
+        int delay = 50;
+        int seconds = 3;
+        SessionScheduler.Mode mode = null;
+        boolean sparse = false;
+        String controller = "Ex3";
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-sessions": sessions = Integer.parseInt(args[++i]); break;
+                case "-size": size = Integer.parseInt(args[++i]); break;
+                case "-delay": delay = Integer.parseInt(args[++i]); break;
+                case "-seconds": seconds = Integer.parseInt(args[++i]); break;
+                case "-mode": mode = SessionScheduler.Mode.valueOf(args[++i].toUpperCase()); break;
+                case "-sparse": sparse = true; break;
+                default: controller = args[i];
+            }
+        }
+        Class<?> controllerClass = Class.forName(controller);
+        SessionScheduler scheduler = mode == null ? new SessionScheduler() : new SessionScheduler(mode);
+        PackedMaze maze = PackedMaze.copyOf(new FastPrimGenerator(size, 7).generateMaze()).freeze();     /*Shared by every session*/
+
+        long heapBefore = usedHeap();
+        long rssBefore = residentBytes();
+        long startTime = System.nanoTime();
+        PackedRobot[] robots = new PackedRobot[sessions];
+        for (int i = 0; i < sessions; i++) {
+            robots[i] = new PackedRobot(sparse);
+            robots[i].setMaze(maze);
+            DirectPolledControllerWrapper session = new DirectPolledControllerWrapper(controllerClass.getDeclaredConstructor().newInstance());
+            session.setRobot(robots[i]);
+            session.setDelay(delay);
+            scheduler.submit(session);
+        }
+        double startSeconds = (System.nanoTime() - startTime) / 1e9;
+
+        long pollsBefore = polls(robots);
+        long measureStart = System.nanoTime();
+        Thread.sleep(seconds * 1000L);
+        double pollRate = (polls(robots) - pollsBefore) / ((System.nanoTime() - measureStart) / 1e9);
+        long heap = usedHeap() - heapBefore;
+        long rss = residentBytes() - rssBefore;
+        int threads = ManagementFactory.getThreadMXBean().getThreadCount();
+
+        long cancelTime = System.nanoTime();
+        scheduler.cancelAll();
+        scheduler.awaitAll();
+        double cancelSeconds = (System.nanoTime() - cancelTime) / 1e9;
+
+        System.out.println(scheduler.getMode() + ": " + sessions + " sessions of " + controller + " on a " + size + "x" + size
+                + " maze, started in " + String.format("%.2f", startSeconds) + "s, cancelled in " + String.format("%.2f", cancelSeconds) + "s");
+        System.out.println("  heap/session=" + heap / sessions + " bytes"
+                + (rssBefore < 0 ? "" : " rss/session=" + rss / sessions + " bytes")
+                + " threads=" + threads + " polls/s=" + String.format("%.0f", pollRate)
+                + " (" + String.format("%.0f", sessions * 1000.0 / delay) + " wanted)");
+        System.exit(0);
+    }
+
+    private static long polls(PackedRobot[] robots) {
+        long total = 0;
+        for (PackedRobot robot : robots) {
+            total += robot.getSteps() + robot.getCollisions();
+        }
+        return total;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * residentBytes reads VmRSS from /proc/self/status, or returns -1 if it is not there
+     */
+    private static long residentBytes() {
+        Path status = Paths.get("/proc/self/status");
+        try {
+            for (String line : Files.readAllLines(status)) {
+                if (line.startsWith("VmRSS:")) return 1024 * Long.parseLong(line.replaceAll("[^0-9]", ""));
+            }
+        }
+        catch (IOException | RuntimeException e) {
+            /*Not Linux*/
+        }
+        return -1;
+    }
+}
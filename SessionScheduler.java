@@ -0,0 +1,182 @@
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+/*
+ * SessionScheduler Preamble:
+ * ControllerThread in maze-environment.jar extends Thread, so every robot being simulated has a platform thread of its own,
+ * which spends nearly all of its time asleep in robot.sleep(delay) between polls. Each of those threads reserves a native stack,
+ * so a few thousand robots at once is already expensive and 100k is impossible.
+ *
+ * SessionScheduler runs the polling loop of many DirectPolledControllerWrappers (sessions) in one of three modes:
+ *      THREAD      a platform thread per session, which is what ControllerThread does, for comparison
+ *      VIRTUAL     a virtual thread per session, running the wrapper's normal start() loop. A sleeping virtual thread
+ *                  is only a small object on the heap, not a native stack
+ *      SCHEDULED   no thread per session: every poll is a task on a pool of one thread per core, and instead of sleeping
+ *                  the session schedules its next poll delay milliseconds later. A waiting session is then only its
+ *                  controller, its robot and one entry in the pool's queue
+ * Virtual threads only exist from Java 21, and this code has to compile on Java 17, so Executors.newVirtualThreadPerTaskExecutor
+ * is looked up by reflection, and the default mode is VIRTUAL where it exists and SCHEDULED otherwise.
+ *
+ * Sessions are cancelled in the same way as in the GUI, through the wrapper's reset(). In every mode the session then stops
+ * at its next poll, without being polled again, and calls finish() to reset the controller.
+ * A session whose controller throws is taken out of the running sessions in every mode, so awaitAll() still returns.
+ */
+/**
+ * This is the scheduler of many polled robot sessions at once, on virtual threads or cooperatively on a small pool
+ *
+ * @author Param Bhatia
+ * @since 18-10-2026
+ */
+public class SessionScheduler {
+
+    public enum Mode { THREAD, VIRTUAL, SCHEDULED }
+
+    private static final ExecutorService VIRTUAL_THREADS = virtualThreads();
+
+    private final Mode mode;
+    private final ScheduledExecutorService pool;         /*Only used in SCHEDULED mode*/
+    private final Set<DirectPolledControllerWrapper> running = ConcurrentHashMap.newKeySet();
+
+    /**
+     * This scheduler uses virtual threads if the JVM has them, otherwise it schedules polls on a pool
+     */
+    public SessionScheduler() {
+        this(isVirtualAvailable() ? Mode.VIRTUAL : Mode.SCHEDULED);
+    }
+
+    /**
+     * @param mode      How the sessions are run, VIRTUAL throws an UnsupportedOperationException before Java 21
+     */
+    public SessionScheduler(Mode mode) {
+        if (mode == Mode.VIRTUAL && !isVirtualAvailable()) {
+            throw new UnsupportedOperationException("Virtual threads need Java 21, this is Java " + System.getProperty("java.version"));
+        }
+        this.mode = mode;
+        pool = mode == Mode.SCHEDULED ? Executors.newScheduledThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+            Thread thread = new Thread(runnable, "session-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+    }
+
+    /**
+     * virtualThreads creates Executors.newVirtualThreadPerTaskExecutor() if the JVM has it, otherwise it returns null
+     */
+    private static ExecutorService virtualThreads() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        }
+        catch (ReflectiveOperationException | RuntimeException e) {
+            return null;        /*Before Java 19 the method does not exist, and on 19 and 20 it needs --enable-preview*/
+        }
+    }
+
+    public static boolean isVirtualAvailable() {
+        return VIRTUAL_THREADS != null;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * submit starts a session, the wrapper must already have its robot, and its maze if the robot needs one set
+     *
+     * @param session       Wrapper of the controller and the robot
+     */
+    public void submit(final DirectPolledControllerWrapper session) {
+        running.add(session);
+        switch (mode) {
+            case THREAD:
+                new Thread(() -> runLoop(session), "session").start();
+                break;
+            case VIRTUAL:
+                VIRTUAL_THREADS.execute(() -> runLoop(session));
+                break;
+            case SCHEDULED:
+                session.begin();
+                pool.execute(new Poll(session));
+                break;
+        }
+    }
+
+    private void runLoop(DirectPolledControllerWrapper session) {
+        try {
+            session.start();
+        }
+        finally {
+            finished(session);
+        }
+    }
+
+    private void finished(DirectPolledControllerWrapper session) {
+        running.remove(session);
+        if (running.isEmpty()) {
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * @return      Number of sessions which have not finished yet
+     */
+    public int getRunning() {
+        return running.size();
+    }
+
+    /**
+     * cancelAll calls reset on every running session, which stop at their next poll
+     */
+    public void cancelAll() {
+        for (DirectPolledControllerWrapper session : running) {
+            session.reset();
+        }
+    }
+
+    /**
+     * awaitAll waits until every session has finished
+     */
+    public synchronized void awaitAll() throws InterruptedException {
+        while (!running.isEmpty()) {
+            wait(100);
+        }
+    }
+
+    /**
+     * Poll is one poll of a session in SCHEDULED mode, which schedules itself again until the session stops
+     * If the controller throws anything, even an Error, the session is finished in the same way as in runLoop,
+     * so that it does not stay in running and keep awaitAll waiting for ever
+     */
+    private class Poll implements Runnable {
+        private final DirectPolledControllerWrapper session;
+
+        Poll(DirectPolledControllerWrapper session) {
+            this.session = session;
+        }
+
+        public void run() {
+            boolean scheduled = false;
+            try {
+                if (session.poll()) {
+                    if (session.getDelay() > 0) pool.schedule(this, session.getDelay(), TimeUnit.MILLISECONDS);
+                    else pool.execute(this);
+                    scheduled = true;
+                }
+            }
+            finally {
+                if (!scheduled) {
+                    try {
+                        session.finish();
+                    }
+                    finally {
+                        finished(session);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+import uk.ac.warwick.dcs.maze.logic.IRobot;
+import uk.ac.warwick.dcs.maze.logic.Maze;
+/**
+ * SimulatedRobot is an IRobot which is moved by whoever owns it, instead of by the EventBus
+ * HeadlessRobot and PackedRobot both implement it, so that BatchRunner and DirectPolledControllerWrapper can use either.
+ *
+ * @author Param Bhatia
+ * @since 18-10-2026
+ */
+public interface SimulatedRobot extends IRobot {
+
+    /**
+     * setMaze places the robot at the start of a new maze, and clears all the runs
+     */
+    void setMaze(Maze maze);
+
+    /**
+     * reset is the equivalent of pressing reset in the GUI
+     */
+    void reset();
+
+    /**
+     * advance moves the robot one square in its current heading, or counts a collision if that square is a wall
+     */
+    void advance();
+
+    /**
+     * setEventBus makes the robot publish its moves, collisions, resets and reaching the target on the given bus
+     *
+     * @param bus       Bus of this simulation, or null to publish nothing
+     */
+    void setEventBus(SimulationEventBus bus);
+
+    boolean isAtTarget();
+
+    long getSteps();
+
+    long getCollisions();
+
+    long getLooks();
+}
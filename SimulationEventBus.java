@@ -0,0 +1,119 @@
+import uk.ac.warwick.dcs.maze.logic.Event;
+import uk.ac.warwick.dcs.maze.logic.IEvent;
+import uk.ac.warwick.dcs.maze.logic.IEventClient;
+import java.awt.Point;
+import java.util.Arrays;
+/*
+ * SimulationEventBus Preamble:
+ * EventBus in maze-environment.jar is static, and broadcast is static synchronized over a LinkedList of clients, so every
+ * event of every robot in the JVM takes the same lock and walks the same list. RobotImpl broadcasts a ROBOT_RELOCATE on every move,
+ * which is why only one RobotImpl simulation can run per JVM.
+ *
+ * A SimulationEventBus is created for each simulation instead, and only the robot of that simulation publishes on it.
+ * The clients are kept in an array which is copied whenever a client is added or removed, and broadcasting only reads
+ * the volatile array, so publishing never takes a lock and a client can be added or removed from any thread (e.g. a GUI)
+ * while the simulation is running.
+ *
+ * Moves are published with location(x, y), which does not create an event at all if nobody is listening. If the bus is created
+ * with a coalesce interval of N, only every N-th location is delivered as a ROBOT_RELOCATE event, with the robot's latest location,
+ * which is all a display or progress monitor needs. Any location still pending is delivered before any other event, and by
+ * flushLocation, so clients always see the robot's final location and see events in the order they happened.
+ *
+ * The same IEventClient and Event classes as EventBus are used, so existing clients can be subscribed to either.
+ */
+/**
+ * This is the per-simulation event bus, with a copy-on-write array of clients and coalesced location events
+ *
+ * @author Param Bhatia
+ * @since 18-10-2026
+ */
+public class SimulationEventBus {
+    private static final IEventClient[] NO_CLIENTS = new IEventClient[0];
+
+    private volatile IEventClient[] clients = NO_CLIENTS;
+    private final int coalesce;
+    private int pendingMoves = 0;       /*Locations published since the last ROBOT_RELOCATE, only used by the simulation's thread*/
+    private int pendingX;
+    private int pendingY;
+
+    /**
+     * This bus delivers every location
+     */
+    public SimulationEventBus() {
+        this(1);
+    }
+
+    /**
+     * @param coalesce      Number of locations published for every ROBOT_RELOCATE delivered, at least 1
+     */
+    public SimulationEventBus(int coalesce) {
+        if (coalesce < 1) throw new IllegalArgumentException("The coalesce interval must be at least 1");
+        this.coalesce = coalesce;
+    }
+
+    public synchronized void addClient(IEventClient client) {
+        IEventClient[] current = clients;
+        IEventClient[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = client;
+        clients = updated;
+    }
+
+    public synchronized void removeClient(IEventClient client) {
+        IEventClient[] current = clients;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == client) {
+                IEventClient[] updated = new IEventClient[current.length - 1];
+                System.arraycopy(current, 0, updated, 0, i);
+                System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                clients = updated;
+                return;
+            }
+        }
+    }
+
+    /**
+     * hasClients lets a publisher skip building an event nobody would receive
+     */
+    public boolean hasClients() {
+        return clients.length != 0;
+    }
+
+    /**
+     * broadcast delivers an event to every client, after any location which is still pending
+     *
+     * @param event     Event to deliver
+     */
+    public void broadcast(IEvent event) {
+        flushLocation();
+        deliver(clients, event);
+    }
+
+    /**
+     * location publishes the robot's new location, it should only be called by the simulation's thread
+     *
+     * @param x     x-coordinate of the robot
+     * @param y     y-coordinate of the robot
+     */
+    public void location(int x, int y) {
+        if (clients.length == 0) return;
+        pendingX = x;
+        pendingY = y;
+        if (++pendingMoves >= coalesce) flushLocation();
+    }
+
+    /**
+     * flushLocation delivers the latest location now if it has not been delivered yet, e.g. at the end of a run
+     */
+    public void flushLocation() {
+        if (pendingMoves == 0) return;
+        pendingMoves = 0;
+        IEventClient[] current = clients;
+        if (current.length != 0) deliver(current, new Event(IEvent.ROBOT_RELOCATE, new Point(pendingX, pendingY)));
+    }
+
+    private static void deliver(IEventClient[] current, IEvent event) {
+        for (IEventClient client : current) {
+            client.notify(event);
+        }
+    }
+}
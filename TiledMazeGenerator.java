@@ -0,0 +1,356 @@
+import uk.ac.warwick.dcs.maze.logic.Maze;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import javax.swing.JPanel;
+/*
+ * TiledMazeGenerator Preamble:
+ * FastPrimGenerator is one thread growing one maze, so a maze of tens of millions of cells still takes seconds.
+ * This generator splits the cells into square tiles and grows a separate Prim's maze inside every tile on a ForkJoinPool,
+ * then joins the tiles together with one door through the wall between each pair of tiles on a random spanning tree of the tiles.
+ * A spanning tree of perfect mazes joined by one door per tree edge is still a perfect maze.
+ *
+ * With loops, every tile then knocks down walls inside itself with the same rule as LoopyGenerator (no 2x2 block of open squares,
+ * fewer than 3 walls around the square, and a coin flip), the tiles which are next to each other but not joined by the spanning tree
+ * get a door with a coin flip as well, and the target is moved to the nearest open square to the centre.
+ *
+ * Every tile has its own SplittableRandom, seeded from the maze seed and the number of the tile with MazeFactory.mazeSeed,
+ * and only writes to its own cells, so the maze for a seed is the same however many threads the pool has, and in whatever
+ * order the tiles are run. The doors and the target come from one more SplittableRandom after all of the tiles are done.
+ *
+ * While the maze is being generated every cell is one byte: whether the wall to its east is open, whether the wall to its south
+ * is open, and whether the corner square to its south-east is open. The cells are then packed into a PackedMaze, also on the pool.
+ */
+/**
+ * This is a maze generator which grows the maze in tiles on all cores
+ *
+ * @author Param Bhatia
+ * @since 18-10-2026
+ */
+public class TiledMazeGenerator implements SeededGenerator {
+    private static final byte EAST_OPEN = 1;
+    private static final byte SOUTH_OPEN = 2;
+    private static final byte CORNER_OPEN = 4;
+
+    private final int cellsAcross;              /*Number of cells across, not including the walls between them*/
+    private final int cellsDown;
+    private final int tileCells;                /*Number of cells across each tile, the last row and column of tiles can be smaller*/
+    private final int tilesAcross;
+    private final int tilesDown;
+    private final boolean loopy;
+    private final ForkJoinPool pool;
+    private long seed;
+    private byte[] cells = new byte[0];
+
+    /**
+     * @param size          Width and height of the generated maze grid, in the same way as MazeFactory.generator
+     * @param tileCells     Number of cells across each tile
+     * @param loopy         true for a maze with loops, as LoopyGenerator makes
+     * @param seed          Seed of the first maze, see setSeed
+     */
+    public TiledMazeGenerator(int size, int tileCells, boolean loopy, long seed) {
+        this(size, tileCells, loopy, seed, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param size          Width and height of the generated maze grid, in the same way as MazeFactory.generator
+     * @param tileCells     Number of cells across each tile
+     * @param loopy         true for a maze with loops, as LoopyGenerator makes
+     * @param seed          Seed of the first maze, see setSeed
+     * @param pool          Pool the tiles are generated on
+     */
+    public TiledMazeGenerator(int size, int tileCells, boolean loopy, long seed, ForkJoinPool pool) {
+        cellsAcross = Math.max(1, (size - 1) / 2);
+        cellsDown = cellsAcross;
+        this.tileCells = Math.max(2, tileCells);
+        tilesAcross = (cellsAcross + this.tileCells - 1) / this.tileCells;
+        tilesDown = (cellsDown + this.tileCells - 1) / this.tileCells;
+        this.loopy = loopy;
+        this.seed = seed;
+        this.pool = pool;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public Maze generateMaze() {
+        if (cells.length != cellsAcross * cellsDown) cells = new byte[cellsAcross * cellsDown];
+        else Arrays.fill(cells, (byte) 0);
+
+        pool.invoke(new Tiles(0, tilesAcross * tilesDown));
+        SplittableRandom random = new SplittableRandom(seed);
+        joinTiles(random);
+
+        PackedMaze maze = pack();
+        maze.setStart(1, 1);
+        if (loopy) centerTarget(maze, random);
+        else maze.setFinish(2 * cellsAcross - 1, 2 * cellsDown - 1);
+        return maze;
+    }
+
+    /**
+     * Tiles generates a range of tiles, splitting the range in half until there is only one tile left
+     */
+    private class Tiles extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int from;
+        private final int to;
+
+        Tiles(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        protected void compute() {
+            if (to - from == 1) {
+                generateTile(from);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new Tiles(from, middle), new Tiles(middle, to));
+        }
+    }
+
+    /**
+     * generateTile grows a Prim's maze inside one tile, from a random cell, using only the cells of that tile
+     *
+     * @param tile      Number of the tile, row by row
+     */
+    private void generateTile(int tile) {
+        int x0 = (tile % tilesAcross) * tileCells;
+        int y0 = (tile / tilesAcross) * tileCells;
+        int width = Math.min(tileCells, cellsAcross - x0);
+        int height = Math.min(tileCells, cellsDown - y0);
+        SplittableRandom random = new SplittableRandom(MazeFactory.mazeSeed(seed, tile));
+
+        /*Cell numbers below are local to the tile*/
+        boolean[] in = new boolean[width * height];
+        boolean[] queued = new boolean[width * height];
+        int[] frontier = new int[width * height];
+        int frontierSize = 0;
+        int[] neighbours = new int[4];
+
+        int cell = random.nextInt(width * height);
+        queued[cell] = true;
+        frontier[frontierSize++] = cell;
+        boolean first = true;
+        while (frontierSize > 0) {
+            int i = random.nextInt(frontierSize);
+            cell = frontier[i];
+            frontier[i] = frontier[--frontierSize];
+            int x = cell % width;
+            int y = cell / width;
+
+            /*Knock down the wall to one random neighbour which is already in the maze*/
+            if (!first) {
+                int count = 0;
+                if (x > 0 && in[cell - 1]) neighbours[count++] = cell - 1;
+                if (y > 0 && in[cell - width]) neighbours[count++] = cell - width;
+                if (x < width - 1 && in[cell + 1]) neighbours[count++] = cell + 1;
+                if (y < height - 1 && in[cell + width]) neighbours[count++] = cell + width;
+                int other = neighbours[random.nextInt(count)];
+                int west = Math.min(cell, other);
+                int global = (y0 + west / width) * cellsAcross + x0 + west % width;
+                cells[global] |= other / width == y ? EAST_OPEN : SOUTH_OPEN;
+            }
+            first = false;
+            in[cell] = true;
+
+            if (x > 0 && !queued[cell - 1]) frontier[frontierSize++] = queue(queued, cell - 1);
+            if (y > 0 && !queued[cell - width]) frontier[frontierSize++] = queue(queued, cell - width);
+            if (x < width - 1 && !queued[cell + 1]) frontier[frontierSize++] = queue(queued, cell + 1);
+            if (y < height - 1 && !queued[cell + width]) frontier[frontierSize++] = queue(queued, cell + width);
+        }
+        if (loopy) addLoops(x0, y0, width, height, random);
+    }
+
+    private static int queue(boolean[] queued, int cell) {
+        queued[cell] = true;
+        return cell;
+    }
+
+    /**
+     * addLoops knocks down walls inside a tile with the same rule as LoopyGenerator
+     * Only squares whose neighbours all belong to this tile are checked, so that no tile reads a square another tile may be changing
+     */
+    private void addLoops(int x0, int y0, int width, int height, SplittableRandom random) {
+        for (int x = 2 * x0 + 2; x < 2 * (x0 + width); x++) {
+            for (int y = 2 * y0 + 2; y < 2 * (y0 + height); y++) {
+                if (!isOpen(x, y) && isValid(x, y) && getWalls(x, y) < 3 && random.nextDouble() > 0.5) open(x, y);
+            }
+        }
+    }
+
+    /**
+     * isValid checks that opening the square at (x, y) would not leave any 2x2 block without a wall
+     */
+    private boolean isValid(int x, int y) {
+        for (int i = x - 1; i <= x; i++) {
+            for (int j = y - 1; j <= y; j++) {
+                boolean open = true;
+                for (int a = i; a <= i + 1; a++) {
+                    for (int b = j; b <= j + 1; b++) {
+                        if (!isOpen(a, b) && (a != x || b != y)) open = false;
+                    }
+                }
+                if (open) return false;
+            }
+        }
+        return true;
+    }
+
+    private int getWalls(int x, int y) {
+        int walls = 0;
+        if (!isOpen(x - 1, y)) walls++;
+        if (!isOpen(x + 1, y)) walls++;
+        if (!isOpen(x, y - 1)) walls++;
+        if (!isOpen(x, y + 1)) walls++;
+        return walls;
+    }
+
+    /**
+     * joinTiles puts a door through the wall between the tiles on a random spanning tree of the tiles (Kruskal's algorithm),
+     * and between other tiles next to each other with a coin flip if the maze is loopy
+     */
+    private void joinTiles(SplittableRandom random) {
+        int tiles = tilesAcross * tilesDown;
+        int[] edges = new int[2 * tiles];       /*2 * tile is the wall to its east, 2 * tile + 1 is the wall to its south*/
+        int edgeCount = 0;
+        for (int tile = 0; tile < tiles; tile++) {
+            if (tile % tilesAcross < tilesAcross - 1) edges[edgeCount++] = 2 * tile;
+            if (tile / tilesAcross < tilesDown - 1) edges[edgeCount++] = 2 * tile + 1;
+        }
+        for (int i = edgeCount - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = edges[i];
+            edges[i] = edges[j];
+            edges[j] = swap;
+        }
+
+        int[] parent = new int[tiles];
+        for (int tile = 0; tile < tiles; tile++) parent[tile] = tile;
+        for (int i = 0; i < edgeCount; i++) {
+            int tile = edges[i] >>> 1;
+            boolean south = (edges[i] & 1) != 0;
+            int a = find(parent, tile);
+            int b = find(parent, south ? tile + tilesAcross : tile + 1);
+            if (a != b) parent[a] = b;
+            else if (!loopy || random.nextDouble() <= 0.5) continue;
+            addDoor(tile, south, random);
+        }
+    }
+
+    private static int find(int[] parent, int tile) {
+        while (parent[tile] != tile) {
+            parent[tile] = parent[parent[tile]];
+            tile = parent[tile];
+        }
+        return tile;
+    }
+
+    /**
+     * addDoor opens the wall of one random cell along the east or south side of a tile
+     */
+    private void addDoor(int tile, boolean south, SplittableRandom random) {
+        int x0 = (tile % tilesAcross) * tileCells;
+        int y0 = (tile / tilesAcross) * tileCells;
+        if (south) {
+            int x = x0 + random.nextInt(Math.min(tileCells, cellsAcross - x0));
+            cells[(y0 + tileCells - 1) * cellsAcross + x] |= SOUTH_OPEN;
+        }
+        else {
+            int y = y0 + random.nextInt(Math.min(tileCells, cellsDown - y0));
+            cells[y * cellsAcross + x0 + tileCells - 1] |= EAST_OPEN;
+        }
+    }
+
+    /**
+     * isOpen is whether the square (x, y) of the finished maze is a passage
+     * Square (2x + 1, 2y + 1) is cell (x, y), and the squares to its east, south and south-east are its three flags
+     */
+    private boolean isOpen(int x, int y) {
+        if (x <= 0 || y <= 0 || x >= 2 * cellsAcross || y >= 2 * cellsDown) return false;
+        if ((x & 1) == 1 && (y & 1) == 1) return true;
+        int flag = (x & 1) == 0 ? ((y & 1) == 0 ? CORNER_OPEN : EAST_OPEN) : SOUTH_OPEN;
+        return (cells[((y - 1) >> 1) * cellsAcross + ((x - 1) >> 1)] & flag) != 0;
+    }
+
+    private void open(int x, int y) {
+        int flag = (x & 1) == 0 ? ((y & 1) == 0 ? CORNER_OPEN : EAST_OPEN) : SOUTH_OPEN;
+        cells[((y - 1) >> 1) * cellsAcross + ((x - 1) >> 1)] |= flag;
+    }
+
+    /**
+     * pack copies the cells into a PackedMaze, splitting the longs of its bitset between the threads of the pool
+     */
+    private PackedMaze pack() {
+        PackedMaze maze = new PackedMaze(2 * cellsAcross + 1, 2 * cellsDown + 1);
+        pool.invoke(new Pack(maze, 0, maze.wordCount()));
+        return maze;
+    }
+
+    /**
+     * Pack fills a range of the longs of the maze, so that no two tasks ever write to the same long
+     */
+    private class Pack extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private static final int WORDS = 4096;  /*Longs filled by one task without splitting*/
+        private final PackedMaze maze;
+        private final int from;
+        private final int to;
+
+        Pack(PackedMaze maze, int from, int to) {
+            this.maze = maze;
+            this.from = from;
+            this.to = to;
+        }
+
+        protected void compute() {
+            if (to - from > WORDS) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Pack(maze, from, middle), new Pack(maze, middle, to));
+                return;
+            }
+            int stride = maze.index(0, 1) - maze.index(0, 0);
+            int x = maze.x(from << 6);
+            int y = maze.y(from << 6);
+            for (int word = from; word < to; word++) {
+                long bits = 0;
+                for (int b = 0; b < 64; b++) {
+                    if (!isOpen(x, y)) bits |= 1L << b;
+                    if (++x == stride - 1) {
+                        x = -1;
+                        y++;
+                    }
+                }
+                maze.setWalls(word, bits);
+            }
+        }
+    }
+
+    /**
+     * centerTarget moves the finish to the centre, or the first open square found by walking randomly right or down from it
+     */
+    private void centerTarget(Maze maze, SplittableRandom random) {
+        int x = maze.getWidth() / 2;
+        int y = maze.getHeight() / 2;
+        while (maze.getCellType(x, y) != Maze.PASSAGE) {
+            if (random.nextDouble() > 0.5) x = (x + 1) % maze.getWidth();
+            else y = (y + 1) % maze.getHeight();
+        }
+        maze.setFinish(x, y);
+    }
+
+    /**
+     * There is no configuration panel, the size, tile size and seed are given to the constructor instead
+     */
+    public JPanel getConfigurator() {
+        return null;
+    }
+
+    public String getDescription() {
+        return loopy ? "Tiled Loopy Maze Generator" : "Tiled Prim's Algorithm";
+    }
+}
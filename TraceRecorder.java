@@ -0,0 +1,327 @@
+import uk.ac.warwick.dcs.maze.logic.IRobot;
+import java.awt.Point;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+/*
+ * TraceRecorder Preamble:
+ * The only way to see what a controller did on a slow run was the junctions Ex1 prints, which are far too slow to leave on
+ * for a whole batch and do not say anything about the corridors in between. TraceRecorder writes one record per poll to a binary file,
+ * with where the robot is, the heading it was left facing, the direction it chose relative to its heading at the start of the poll,
+ * whether the controller was exploring or backtracking, and the depth of its junction stack.
+ *
+ * Tracing is only turned on when the maze.trace system property is set, e.g. -Dmaze.trace=ex3.trace, otherwise forController()
+ * returns null and the controllers do not record anything. Every controller has a recorder of its own, with an id in the order
+ * they were created, since one thread can poll many controllers (FleetSimulation, SessionScheduler) and one controller can be
+ * polled by many threads (a SessionScheduler pool). A recorder fills a small buffer of its own, and hands it on as a chunk tagged
+ * with its id when it is full, when the controller is reset and when the JVM exits. The chunks are copied into one 64KB staging
+ * buffer under a lock, which is written to the file when it is full, so a batch of short runs does not make a write call each.
+ *
+ * The controllers call reset() on their recorder from their own reset(), which is how a recorder knows a new run has started,
+ * and the location is only read from the robot then. After that it is dead-reckoned: the robot moves one square in the heading
+ * it was left facing, unless that square was a wall in the Neighbourhood the controller scanned, which is a collision.
+ * So apart from the heading, record does not call the robot at all.
+ *
+ * The file starts with the magic int "MZT2", followed by chunks of a varint recorder id, a varint length and that many bytes.
+ * Within the chunks of one recorder, nearly every poll is one byte:
+ *      bits 0-1    chosen direction, 0 is AHEAD and 3 is LEFT
+ *      bits 2-3    heading after the poll, 0 is NORTH and 3 is WEST
+ *      bit 4       1 if exploring, 0 if backtracking
+ *      bits 5-6    change in stack depth, 0 none, 1 push, 3 pop, 2 anything else (a zigzag varint of the change follows)
+ *      bit 7       the robot is not one square on from the last poll, in the heading it was left facing (a tag byte follows)
+ * The tag byte is 0 if the robot did not move from the last poll (a collision), or 1 at the start of a run,
+ * followed by varints of x, y and the stack depth. After the tag come the bytes for bits 5-6.
+ *
+ * Usage: java TraceRecorder trace [-steps] [-robot N]
+ */
+/**
+ * This is the opt-in per-poll trace of one controller, written 1-2 bytes per step
+ *
+ * @author Param Bhatia
+ * @since 18-10-2026
+ */
+public class TraceRecorder {
+    public static final String FILE_PROPERTY = "maze.trace";
+    private static final int MAGIC = 0x4D5A5432;
+    private static final int BUFFER_BYTES = 1 << 12;
+    private static final int HEADER = 10;   /*Room at the front of the buffer for the chunk's id and length*/
+    private static final int[] DX = {0, 1, 0, -1};
+    private static final int[] DY = {-1, 0, 1, 0};
+
+    private static final String FILE = System.getProperty(FILE_PROPERTY);
+    private static final AtomicInteger IDS = new AtomicInteger();
+    private static final Set<TraceRecorder> UNWRITTEN = ConcurrentHashMap.newKeySet();     /*Recorders with records in their buffer*/
+    private static final int STAGING_BYTES = 1 << 16;
+    private static byte[] staging;          /*Chunks waiting to be written, so that the file is written 64KB at a time*/
+    private static int staged;
+    private static FileChannel channel;
+
+    private final int id;
+    private byte[] buffer;                  /*Only created on the first record*/
+    private int position = HEADER;
+    private boolean newRun = true;
+    private boolean blocked;                /*The last poll left the robot facing a wall*/
+    private int lastDepth;
+
+    static {
+        if (FILE != null) Runtime.getRuntime().addShutdownHook(new Thread(TraceRecorder::closeAll));
+    }
+
+    private TraceRecorder(int id) {
+        this.id = id;
+    }
+
+    /**
+     * forController creates the recorder of a new controller, which keeps it in a field
+     *
+     * @return      The recorder, or null if the maze.trace property is not set
+     */
+    public static TraceRecorder forController() {
+        if (FILE == null) return null;
+        open();
+        return new TraceRecorder(IDS.getAndIncrement());
+    }
+
+    private static synchronized void open() {
+        if (channel != null) return;
+        staging = new byte[STAGING_BYTES];
+        Path file = Paths.get(FILE);
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+            ByteBuffer magic = ByteBuffer.allocate(4).putInt(MAGIC);
+            magic.flip();
+            channel.write(magic);
+        }
+        catch (IOException e) {
+            throw new RuntimeException("Could not create the trace file " + file, e);
+        }
+    }
+
+    /**
+     * record is called at the end of every poll
+     *
+     * @param robot             Robot which was just polled
+     * @param around            Squares around the robot, as the controller scanned them at the start of the poll
+     * @param headingBefore     Heading of the robot at the start of the poll
+     * @param explorerMode      1 if the controller is exploring, 0 if it is backtracking
+     * @param depth             Size of the controller's junction stack
+     */
+    public void record(IRobot robot, Neighbourhood around, int headingBefore, int explorerMode, int depth) {
+        int heading = robot.getHeading() - IRobot.NORTH;
+        int direction = (heading - headingBefore + IRobot.NORTH) & 3;
+        int change = depth - lastDepth;
+        int code = direction | (heading << 2) | ((explorerMode & 1) << 4) | ((change & 3) << 5);     /*-1, 0 and 1 are 3, 0 and 1*/
+        lastDepth = depth;
+        if (newRun | blocked | position > BUFFER_BYTES - 32 | Integer.compareUnsigned(change + 1, 2) > 0) {
+            recordRarely(robot, code, change, depth);
+        }
+        else {
+            buffer[position++] = (byte) code;      /*Nearly every poll*/
+        }
+        blocked = (around.nonwallMask() & (1 << direction)) == 0;     /*The robot will not move*/
+    }
+
+    /**
+     * recordRarely is the rest of record, kept apart so that the one byte case is small enough to be inlined into the controller
+     */
+    private void recordRarely(IRobot robot, int code, int change, int depth) {
+        if (buffer == null) buffer = new byte[BUFFER_BYTES];
+        if (position > BUFFER_BYTES - 32) drain();
+        if (newRun) {
+            newRun = false;
+            UNWRITTEN.add(this);
+            Point location = robot.getLocation();     /*Only read once a run*/
+            buffer[position++] = (byte) ((code & 31) | 128);
+            buffer[position++] = 1;
+            putVarint(location.x);
+            putVarint(location.y);
+            putVarint(depth);
+            return;
+        }
+        if (change < -1 || change > 1) code = (code & 31) | 64;
+        if (!blocked) {
+            buffer[position++] = (byte) code;
+        }
+        else {
+            buffer[position++] = (byte) (code | 128);
+            buffer[position++] = 0;
+        }
+        if ((code & 96) == 64) putVarint((change << 1) ^ (change >> 31));
+    }
+
+    /**
+     * reset is called by the controller's reset, so the next record starts a new run
+     * The records so far are written out, so a finished controller does not hold on to any
+     */
+    public void reset() {
+        newRun = true;
+        blocked = false;
+        if (position > HEADER) drain();
+        UNWRITTEN.remove(this);
+    }
+
+    private void putVarint(int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    /**
+     * drain adds the buffer to the staged chunks, with the id and length written just in front of the records
+     */
+    private void drain() {
+        int length = position - HEADER;
+        int from = HEADER - varintBytes(length) - varintBytes(id);
+        position = from;
+        putVarint(id);
+        putVarint(length);
+        synchronized (TraceRecorder.class) {
+            if (staged + HEADER + length - from > STAGING_BYTES) flush();
+            System.arraycopy(buffer, from, staging, staged, HEADER + length - from);
+            staged += HEADER + length - from;
+        }
+        position = HEADER;
+    }
+
+    /**
+     * flush writes the staged chunks to the file, the caller holds the class's lock
+     */
+    private static void flush() {
+        ByteBuffer bytes = ByteBuffer.wrap(staging, 0, staged);
+        staged = 0;
+        try {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        }
+        catch (IOException e) {
+            throw new RuntimeException("Could not write the trace", e);
+        }
+    }
+
+    private static int varintBytes(int value) {
+        return value < (1 << 7) ? 1 : value < (1 << 14) ? 2 : value < (1 << 21) ? 3 : value < (1 << 28) ? 4 : 5;
+    }
+
+    private static synchronized void closeAll() {
+        for (TraceRecorder recorder : UNWRITTEN) {
+            try {
+                if (recorder.position > HEADER) recorder.drain();
+            }
+            catch (RuntimeException e) {
+                System.err.println("Could not write a trace: " + e.getMessage());
+            }
+        }
+        try {
+            if (channel != null) {
+                flush();
+                channel.close();
+            }
+        }
+        catch (IOException | RuntimeException e) {
+            System.err.println("Could not close the trace: " + e.getMessage());
+        }
+    }
+
+    /**
+     * main decodes a trace file, printing a summary, and every step with -steps
+     * With -robot N only the records of recorder N are decoded
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.out.println("Usage: java TraceRecorder trace [-steps] [-robot N]");
+            System.exit(1);
+        }
+        boolean steps = false;
+        int only = -1;
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("-steps")) steps = true;
+            else if (args[i].equals("-robot")) only = Integer.parseInt(args[++i]);
+        }
+        ByteBuffer trace;
+        try (FileChannel file = FileChannel.open(Paths.get(args[0]), StandardOpenOption.READ)) {
+            trace = file.map(FileChannel.MapMode.READ_ONLY, 0, file.size());
+        }
+        if (trace.remaining() < 4 || trace.getInt() != MAGIC) {
+            throw new IOException(args[0] + " is not a trace");
+        }
+        String[] headings = {"NORTH", "EAST", "SOUTH", "WEST"};
+        String[] directions = {"AHEAD", "RIGHT", "BEHIND", "LEFT"};
+        Map<Integer, int[]> robots = new HashMap<Integer, int[]>();     /*x, y, heading and depth of each recorder*/
+        long polls = 0;
+        long runs = 0;
+        long exploring = 0;
+        long collisions = 0;
+        int maxDepth = 0;
+        while (trace.hasRemaining()) {
+            int id = getVarint(trace);
+            int end = getVarint(trace) + trace.position();
+            if (only >= 0 && id != only) {
+                trace.position(end);
+                continue;
+            }
+            int[] robot = robots.computeIfAbsent(id, key -> new int[4]);
+            while (trace.position() < end) {
+                int code = trace.get() & 0xFF;
+                boolean runStart = false;
+                robot[0] += DX[robot[2]];
+                robot[1] += DY[robot[2]];
+                if ((code & 128) != 0) {
+                    if (trace.get() == 1) {
+                        runStart = true;
+                        robot[0] = getVarint(trace);
+                        robot[1] = getVarint(trace);
+                        robot[3] = getVarint(trace);
+                        runs++;
+                    }
+                    else {
+                        robot[0] -= DX[robot[2]];
+                        robot[1] -= DY[robot[2]];
+                        collisions++;
+                    }
+                }
+                if (!runStart) {
+                    int change = (code >> 5) & 3;
+                    robot[3] += change == 0 ? 0 : change == 1 ? 1 : change == 3 ? -1 : unzigzag(getVarint(trace));
+                }
+                robot[2] = (code >> 2) & 3;
+                if ((code & 16) != 0) exploring++;
+                maxDepth = Math.max(maxDepth, robot[3]);
+                if (steps) {
+                    System.out.println("robot " + id + (runStart ? " run" : "") + " (" + robot[0] + ", " + robot[1] + ") " + directions[code & 3]
+                            + " " + headings[robot[2]] + " " + ((code & 16) != 0 ? "explore" : "backtrack") + " depth " + robot[3]);
+                }
+                polls++;
+            }
+        }
+        System.out.printf("%d robots, %d runs, %d polls, %d bytes (%.2f bytes/poll), %.1f%% exploring, %d collisions, max depth %d%n",
+                robots.size(), runs, polls, trace.limit(), trace.limit() / (double) Math.max(1, polls), 100.0 * exploring / Math.max(1, polls),
+                collisions, maxDepth);
+    }
+
+    private static int getVarint(ByteBuffer trace) {
+        int value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = trace.get();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
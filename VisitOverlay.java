@@ -0,0 +1,118 @@
+import java.util.Arrays;
+/*
+ * VisitOverlay Preamble:
+ * RobotImpl keeps a boolean[width][height] trackerGrid, and PackedRobot a bitset the size of the maze, so every robot
+ * pays for the whole maze even if it only ever visits a corner of it. With hundreds of robots on one large maze
+ * (see FleetSimulation) that is robots x squares memory, for squares which are nearly all never visited.
+ *
+ * A VisitOverlay only stores the 64-square blocks which have been visited. It uses the same indexes as a PackedMaze, so block i
+ * is the same squares as word i of the maze's walls, and it is a hash table from the block number to the block's 64 bits,
+ * with open addressing and linear probing in two parallel arrays, so no object is created per block.
+ * An overlay grows as blocks are visited, and its memory is about 24 bytes per visited block however big the maze is.
+ *
+ * The maze itself is not copied, every robot reads the same PackedMaze and only writes to its own overlay.
+ */
+/**
+ * This is the sparse set of squares which one robot has been on, stored as the visited 64-square blocks of a PackedMaze
+ *
+ * @author Param Bhatia
+ * @since 18-10-2026
+ */
+public class VisitOverlay {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private int[] blocks;               /*Block number + 1 of every slot, 0 for an empty slot*/
+    private long[] bits;                /*Visited squares of the block in the same slot*/
+    private int shift;                  /*32 - log2(capacity), for the multiplicative hash*/
+    private int size = 0;
+
+    public VisitOverlay() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    private void allocate(int capacity) {
+        blocks = new int[capacity];
+        bits = new long[capacity];
+        shift = 32 - Integer.numberOfTrailingZeros(capacity);
+    }
+
+    /**
+     * slot finds the slot of a block, or the empty slot it would go in
+     */
+    private int slot(int key) {
+        int mask = blocks.length - 1;
+        int slot = (key * 0x9E3779B9) >>> shift;
+        while (blocks[slot] != 0 && blocks[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * contains checks whether a square has been visited
+     *
+     * @param index     Index of the square in the PackedMaze
+     */
+    public boolean contains(int index) {
+        int slot = slot((index >>> 6) + 1);
+        return (bits[slot] & (1L << index)) != 0;       /*An empty slot has no bits set*/
+    }
+
+    /**
+     * add marks a square as visited
+     *
+     * @param index     Index of the square in the PackedMaze
+     */
+    public void add(int index) {
+        int key = (index >>> 6) + 1;
+        int slot = slot(key);
+        if (blocks[slot] == 0) {
+            if (2 * (size + 1) > blocks.length) {
+                grow();
+                slot = slot(key);
+            }
+            blocks[slot] = key;
+            size++;
+        }
+        bits[slot] |= 1L << index;
+    }
+
+    private void grow() {
+        int[] oldBlocks = blocks;
+        long[] oldBits = bits;
+        allocate(2 * oldBlocks.length);
+        for (int i = 0; i < oldBlocks.length; i++) {
+            if (oldBlocks[i] != 0) {
+                int slot = slot(oldBlocks[i]);
+                blocks[slot] = oldBlocks[i];
+                bits[slot] = oldBits[i];
+            }
+        }
+    }
+
+    /**
+     * clear forgets every square, and gives back the memory if the overlay had grown
+     */
+    public void clear() {
+        if (blocks.length > INITIAL_CAPACITY) allocate(INITIAL_CAPACITY);
+        else {
+            Arrays.fill(blocks, 0);
+            Arrays.fill(bits, 0L);
+        }
+        size = 0;
+    }
+
+    /**
+     * @return      Number of 64-square blocks with at least one visited square
+     */
+    public int blockCount() {
+        return size;
+    }
+
+    /**
+     * @return      Bytes used by the two arrays
+     */
+    public long bytes() {
+        return 12L * blocks.length;
+    }
+}
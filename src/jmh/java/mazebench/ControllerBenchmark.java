@@ -0,0 +1,141 @@
+package mazebench;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.ac.warwick.dcs.maze.logic.IRobot;
+import uk.ac.warwick.dcs.maze.logic.Maze;
+import java.lang.reflect.Constructor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+/*
+ * ControllerBenchmark Preamble:
+ * This is MazeBenchmark's controlRobot benchmark under JMH. One operation is solving one of the seeded mazes with a new
+ * controller, seeded with MazeFactory.mazeSeed(SEED, i), on a HeadlessRobot, so controlRobot is scored in mazes/s.
+ * The steps made are also counted through an @AuxCounters state, which JMH reports as controlRobot:steps in steps/s,
+ * the same figure as MazeBenchmark's. With -prof gc, gc.alloc.rate.norm is bytes per maze.
+ *
+ * As in MazeBenchmark, a run which throws (e.g. Ex2 on a loopy maze) counts the steps it made before it threw, and a run which
+ * is still going after 10 polls per square (e.g. Ex1 going round a loop) is stopped there. Ex1's junction log is turned off
+ * with -Dmaze.log.level=OFF on the forked JVM, since JunctionLog reads it once, when it is first loaded.
+ *
+ * e.g. gradle jmh -Pjmh="ControllerBenchmark -p controller=Ex3,GrandFinale -p maze=loopy -p size=201"
+ */
+/**
+ * This is the JMH benchmark of every controller's controlRobot on seeded Prim and Loopy mazes
+ *
+ * @author Param Bhatia
+ * @since 18-10-2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dmaze.log.level=OFF")
+public class ControllerBenchmark {
+
+    @Param({"Ex1", "Ex2", "Ex3", "GrandFinale", "AStarController"})
+    public String controller;
+
+    @Param({"prim", "loopy"})
+    public String maze;
+
+    @Param({"51", "201", "1001"})
+    public int size;
+
+    private Maze[] mazes;
+    private long[] seeds;
+    private Constructor<?> newController;
+    private boolean seeded;                 /*The controller has a (long seed) constructor*/
+    private BiConsumer<Object, IRobot> controlRobot;
+    private IRobot robot;
+    private Consumer<Object> advance;
+    private Predicate<Object> atTarget;
+    private ToLongFunction<Object> steps;
+    private int next = 0;                   /*Maze to solve next*/
+
+    /**
+     * Steps is the number of steps made in each iteration, which JMH divides by the time like an operation count
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Steps {
+        public long steps;
+
+        @Setup(Level.Iteration)
+        public void clear() {
+            steps = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+        if (!maze.equals("prim") && !maze.equals("loopy")) {
+            throw new IllegalArgumentException("maze must be prim or loopy, not " + maze);
+        }
+        mazes = DefaultPackage.seededMazes(maze.equals("loopy"), size);
+        seeds = new long[mazes.length];
+        for (int i = 0; i < mazes.length; i++) {
+            seeds[i] = DefaultPackage.mazeSeed(i);
+        }
+
+        Class<?> controllerClass = Class.forName(controller);
+        try {
+            newController = controllerClass.getConstructor(long.class);
+            seeded = true;
+        }
+        catch (NoSuchMethodException e) {
+            newController = controllerClass.getConstructor();
+            seeded = false;
+        }
+        controlRobot = DefaultPackage.bind(BiConsumer.class, controllerClass, "controlRobot");
+
+        robot = (IRobot) DefaultPackage.construct("HeadlessRobot");
+        advance = DefaultPackage.bind(Consumer.class, robot.getClass(), "advance");
+        atTarget = DefaultPackage.bind(Predicate.class, robot.getClass(), "isAtTarget");
+        steps = DefaultPackage.bind(ToLongFunction.class, robot.getClass(), "getSteps");
+    }
+
+    /**
+     * controlRobot solves the next maze with a new controller
+     *
+     * @return          Steps made
+     */
+    @Benchmark
+    public long controlRobot(Steps counter) throws Exception {
+        int m = next;
+        next = (next + 1) % mazes.length;
+        Object controlObject = seeded ? newController.newInstance(seeds[m]) : newController.newInstance();
+        DefaultPackage.invoke(robot, "setMaze", mazes[m]);
+        robot.setHeading(IRobot.EAST);
+        long maxPolls = 10L * size * size;
+        long polls = 0;
+        try {
+            while (!atTarget.test(robot) && polls++ < maxPolls) {
+                controlRobot.accept(controlObject, robot);
+                advance.accept(robot);
+            }
+        }
+        catch (RuntimeException e) {
+            /*The steps made before the controller threw are still counted*/
+        }
+        long made = steps.applyAsLong(robot);
+        counter.steps += made;
+        return made;
+    }
+}
@@ -0,0 +1,137 @@
+package mazebench;
+
+import uk.ac.warwick.dcs.maze.logic.IMazeGenerator;
+import uk.ac.warwick.dcs.maze.logic.Maze;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+/*
+ * DefaultPackage Preamble:
+ * JMH will not generate a benchmark for a class in the default package, and a class in a named package cannot import one
+ * from the default package, which is where every class of this repository is. So the benchmarks reach the controllers,
+ * robots and generators through this class, by name.
+ *
+ * Everything found by reflection is found once, while a benchmark is being set up. A method which is called in the measured loop
+ * is bound with LambdaMetafactory to a java.util.function interface, in the same way as DirectPolledControllerWrapper.bind,
+ * so each call is a normal interface call which the JIT can inline, not a reflective one.
+ */
+/**
+ * This is the bridge from the JMH benchmarks to the classes in the default package
+ *
+ * @author Param Bhatia
+ * @since 18-10-2026
+ */
+final class DefaultPackage {
+    static final long SEED = 20261018L;     /*The same seed as MazeBenchmark, so both are run on the same mazes*/
+
+    private DefaultPackage() {
+    }
+
+    /**
+     * construct creates an instance of a class in the default package, with the public constructor which fits the arguments
+     */
+    static Object construct(String className, Object... args) throws ReflectiveOperationException {
+        for (Constructor<?> constructor : Class.forName(className).getConstructors()) {
+            if (fits(constructor, args)) return constructor.newInstance(args);
+        }
+        throw new NoSuchMethodException(className + " has no public constructor for " + args.length + " arguments");
+    }
+
+    /**
+     * call calls a public static method of a class in the default package
+     */
+    static Object call(String className, String name, Object... args) throws ReflectiveOperationException {
+        return find(Class.forName(className), name, args, true).invoke(null, args);
+    }
+
+    /**
+     * invoke calls a public method on an object of a class in the default package
+     */
+    static Object invoke(Object target, String name, Object... args) throws ReflectiveOperationException {
+        return find(target.getClass(), name, args, false).invoke(target, args);
+    }
+
+    /**
+     * bind turns a public method of a class into an instance of a functional interface, where the object the method is called on
+     * is the first argument, e.g. bind(BiConsumer.class, Ex3.class, "controlRobot") for (controller, robot) -> controller.controlRobot(robot)
+     *
+     * @param type      Functional interface, with one more parameter than the method
+     * @param owner     Class the method is declared in or inherited by
+     * @param name      Name of the method
+     * @return          Instance of the interface
+     */
+    static <T> T bind(Class<T> type, Class<?> owner, String name) throws ReflectiveOperationException {
+        Method abstractMethod = null;
+        for (Method method : type.getMethods()) {
+            if (Modifier.isAbstract(method.getModifiers())) abstractMethod = method;
+        }
+        Method target = null;
+        for (Method method : owner.getMethods()) {
+            if (method.getName().equals(name) && method.getParameterCount() == abstractMethod.getParameterCount() - 1
+                    && !Modifier.isStatic(method.getModifiers())) {
+                target = method;
+            }
+        }
+        if (target == null) throw new NoSuchMethodException(owner.getName() + "." + name);
+
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodHandle handle = lookup.unreflect(target);
+        MethodType erased = MethodType.methodType(abstractMethod.getReturnType(), abstractMethod.getParameterTypes());
+        MethodType instantiated = handle.type().changeParameterType(0, owner);
+        try {
+            return type.cast(LambdaMetafactory.metafactory(lookup, abstractMethod.getName(), MethodType.methodType(type),
+                    erased, handle, instantiated).getTarget().invoke());
+        }
+        catch (Throwable e) {
+            throw new IllegalArgumentException("Could not bind " + owner.getName() + "." + name + " to " + type.getName(), e);
+        }
+    }
+
+    /**
+     * seededMazes generates the same mazes as MazeBenchmark, about 2 million squares in total, where maze i is generated
+     * from MazeFactory.mazeSeed(SEED, i) like BatchRunner -seed
+     */
+    static Maze[] seededMazes(boolean loopy, int size) throws ReflectiveOperationException {
+        IMazeGenerator generator = (IMazeGenerator) call("MazeFactory", "generator", loopy, size, SEED);
+        Maze[] mazes = new Maze[Math.max(1, 2000000 / (size * size))];
+        for (int i = 0; i < mazes.length; i++) {
+            invoke(generator, "setSeed", mazeSeed(i));
+            mazes[i] = generator.generateMaze();
+        }
+        return mazes;
+    }
+
+    /**
+     * @return      MazeFactory.mazeSeed(SEED, index), the seed of maze index and of the controller which solves it
+     */
+    static long mazeSeed(int index) throws ReflectiveOperationException {
+        return (Long) call("MazeFactory", "mazeSeed", SEED, index);
+    }
+
+    private static Method find(Class<?> owner, String name, Object[] args, boolean isStatic) throws NoSuchMethodException {
+        for (Method method : owner.getMethods()) {
+            if (method.getName().equals(name) && Modifier.isStatic(method.getModifiers()) == isStatic && fits(method, args)) {
+                return method;
+            }
+        }
+        throw new NoSuchMethodException(owner.getName() + "." + name + " for " + args.length + " arguments");
+    }
+
+    /**
+     * fits checks that every argument can be passed to a parameter, after unboxing it if the parameter is primitive
+     */
+    private static boolean fits(Executable executable, Object[] args) {
+        Class<?>[] parameters = executable.getParameterTypes();
+        if (parameters.length != args.length) return false;
+        for (int i = 0; i < args.length; i++) {
+            Class<?> parameter = MethodType.methodType(parameters[i]).wrap().returnType();
+            if (args[i] != null && !parameter.isInstance(args[i])) return false;
+        }
+        return true;
+    }
+}
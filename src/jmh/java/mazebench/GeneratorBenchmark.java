@@ -0,0 +1,69 @@
+package mazebench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.ac.warwick.dcs.maze.logic.IMazeGenerator;
+import uk.ac.warwick.dcs.maze.logic.Maze;
+import java.util.concurrent.TimeUnit;
+/*
+ * GeneratorBenchmark Preamble:
+ * This is MazeBenchmark's generateMaze benchmark under JMH, in ms per maze. PrimGenerator and LoopyGenerator are the generators
+ * in maze-environment.jar which the GUI uses (through MazeFactory.generator, which only sets their size), and FastPrimGenerator
+ * and TiledMazeGenerator are this repository's generators for large mazes, with tiles of 256 squares.
+ *
+ * e.g. gradle jmh -Pjmh="GeneratorBenchmark -p size=1001 -prof gc"
+ */
+/**
+ * This is the JMH benchmark of the maze generators
+ *
+ * @author Param Bhatia
+ * @since 18-10-2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeneratorBenchmark {
+
+    @Param({"PrimGenerator", "LoopyGenerator", "FastPrimGenerator", "TiledMazeGenerator"})
+    public String generator;
+
+    @Param({"51", "201", "1001"})
+    public int size;
+
+    private IMazeGenerator mazes;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        switch (generator) {
+            case "PrimGenerator":
+                mazes = (IMazeGenerator) DefaultPackage.call("MazeFactory", "generator", false, size);
+                break;
+            case "LoopyGenerator":
+                mazes = (IMazeGenerator) DefaultPackage.call("MazeFactory", "generator", true, size);
+                break;
+            case "FastPrimGenerator":
+                mazes = (IMazeGenerator) DefaultPackage.construct("FastPrimGenerator", size, DefaultPackage.SEED);
+                break;
+            default:
+                mazes = (IMazeGenerator) DefaultPackage.construct(generator, size, 256, false, DefaultPackage.SEED);
+        }
+    }
+
+    @Benchmark
+    public Maze generateMaze() {
+        return mazes.generateMaze();
+    }
+}
@@ -0,0 +1,79 @@
+package mazebench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.ac.warwick.dcs.maze.logic.EventBus;
+import uk.ac.warwick.dcs.maze.logic.IMazeGenerator;
+import uk.ac.warwick.dcs.maze.logic.IRobot;
+import uk.ac.warwick.dcs.maze.logic.Maze;
+import uk.ac.warwick.dcs.maze.logic.RobotImpl;
+import java.util.concurrent.TimeUnit;
+/*
+ * RobotBenchmark Preamble:
+ * This is MazeBenchmark's look and face benchmarks under JMH, in ns per call, on each robot standing at the start
+ * of a 201 square Prim maze. look cycles through the four relative directions, and face keeps turning right.
+ * RobotImpl broadcasts every change of heading on the static EventBus, so it is added to the bus like in the GUI.
+ *
+ * e.g. gradle jmh -Pjmh="RobotBenchmark -prof gc"
+ */
+/**
+ * This is the JMH benchmark of look and face on RobotImpl, HeadlessRobot and PackedRobot
+ *
+ * @author Param Bhatia
+ * @since 18-10-2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RobotBenchmark {
+
+    @Param({"RobotImpl", "HeadlessRobot", "PackedRobot"})
+    public String robot;
+
+    private IRobot calls;
+    private int direction = 0;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Maze maze = ((IMazeGenerator) DefaultPackage.call("MazeFactory", "generator", false, 201, DefaultPackage.SEED)).generateMaze();
+        if (robot.equals("RobotImpl")) {
+            RobotImpl robotImpl = new RobotImpl();
+            EventBus.addClient(robotImpl);
+            robotImpl.setMaze(maze);
+            calls = robotImpl;
+        }
+        else {
+            calls = (IRobot) DefaultPackage.construct(robot);
+            DefaultPackage.invoke(calls, "setMaze", maze);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (calls instanceof RobotImpl) EventBus.removeClient((RobotImpl) calls);
+    }
+
+    @Benchmark
+    public int look() {
+        return calls.look(IRobot.AHEAD + (direction++ & 3));
+    }
+
+    @Benchmark
+    public void face() {
+        calls.face(IRobot.RIGHT);
+    }
+}